@@ -0,0 +1,51 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the ChessBoard reads and copies that the game and client lean on.
+ * Run with -prof gc to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessBoardBenchmark {
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private ChessBoard board;
+    private ChessBoard target;
+
+    @Setup
+    public void setup() {
+        board = Positions.load(position).getBoard();
+        target = new ChessBoard();
+    }
+
+    @Benchmark
+    public void getPiece(Blackhole blackhole) {
+        for (int index = 0; index < 64; index++) {
+            blackhole.consume(board.getPiece(index));
+        }
+    }
+
+    @Benchmark
+    public ChessBoard copy() {
+        target.copy(board);
+        return target;
+    }
+
+    @Benchmark
+    public ChessBoard copyIntoNewBoard() {
+        ChessBoard copy = new ChessBoard();
+        copy.copy(board);
+        return copy;
+    }
+}
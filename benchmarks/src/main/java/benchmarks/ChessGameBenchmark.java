@@ -0,0 +1,116 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the public ChessGame API the server and client call on every move.
+ * ChessGame caches the legal moves and status of a position, so most benchmarks call setBoard first to clear
+ * that cache and measure the real work (setBoard alone is measured as setBoardOnly to subtract it out).
+ * The *Cached benchmarks measure a repeated call on an unchanged position instead.
+ * Run with -prof gc to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME, Positions.CHECKMATE})
+    public String position;
+
+    private ChessBoard board;
+    private ChessGame.TeamColor teamToMove;
+    private ChessGame game;
+    private List<ChessPosition> ownPieces;
+    private ChessMove firstMove;
+
+    @Setup
+    public void setup() {
+        ChessGame loaded = Positions.load(position);
+        board = loaded.getBoard();
+        teamToMove = loaded.getTeamTurn();
+        game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(teamToMove);
+
+        ownPieces = new ArrayList<>();
+        for (int index = 0; index < 64; index++) {
+            ChessPiece piece = board.getPiece(index);
+            if (piece != null && piece.getTeamColor() == teamToMove) {
+                ownPieces.add(ChessPosition.of(index));
+            }
+        }
+        for (ChessPosition start : ownPieces) {
+            Collection<ChessMove> moves = game.validMoves(start);
+            if (firstMove == null && !moves.isEmpty()) {
+                firstMove = moves.iterator().next();
+            }
+        }
+    }
+
+    @Benchmark
+    public void setBoardOnly() {
+        game.setBoard(board);
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        game.setBoard(board);
+        for (ChessPosition start : ownPieces) {
+            blackhole.consume(game.validMoves(start));
+        }
+    }
+
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition start : ownPieces) {
+            blackhole.consume(game.validMoves(start));
+        }
+    }
+
+    @Benchmark
+    public ChessBoard makeMove() throws InvalidMoveException {
+        if (firstMove == null) {
+            return null;
+        }
+        game.setBoard(board);
+        game.setTeamTurn(teamToMove);
+        game.makeMove(firstMove);
+        return game.getBoard();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(teamToMove);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        game.setBoard(board);
+        return game.isInCheckmate(teamToMove);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(teamToMove);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        game.setBoard(board);
+        return game.isInStalemate(teamToMove);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the mailbox-backed ChessBoard.getPiece against the old lookup, which scanned all 12 bitboards and
+ * allocated a new ChessPiece for every hit. Each invocation reads all 64 squares of the starting board, the same
+ * access pattern as drawing the board in the client.
+ * Run with -prof gc to see the allocation rate difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GetPieceBenchmark {
+    private ChessBoard board;
+
+    @Setup
+    public void setup() {
+        board = new ChessBoard();
+        board.resetBoard();
+    }
+
+    @Benchmark
+    public void mailboxLookup(Blackhole blackhole) {
+        for (int index = 0; index < 64; index++) {
+            blackhole.consume(board.getPiece(index));
+        }
+    }
+
+    @Benchmark
+    public void bitboardScan(Blackhole blackhole) {
+        long[] bitboards = board.getBitboards();
+        for (int index = 0; index < 64; index++) {
+            blackhole.consume(scanBitboards(bitboards, index));
+        }
+    }
+
+    /**
+     * The lookup getPiece used before the mailbox existed, kept here as the baseline.
+     */
+    private static ChessPiece scanBitboards(long[] bitboards, int index) {
+        for (int i = 0; i < 12; i++) {
+            if (((bitboards[i] >> index) & 1L) == 1) {
+                ChessGame.TeamColor color = (i < 6) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                return switch (i % 6) {
+                    case 0 -> new ChessPiece(color, ChessPiece.PieceType.PAWN);
+                    case 1 -> new ChessPiece(color, ChessPiece.PieceType.ROOK);
+                    case 2 -> new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
+                    case 3 -> new ChessPiece(color, ChessPiece.PieceType.BISHOP);
+                    case 4 -> new ChessPiece(color, ChessPiece.PieceType.QUEEN);
+                    default -> new ChessPiece(color, ChessPiece.PieceType.KING);
+                };
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.movecalculator.BishopMove;
+import chess.movecalculator.KingMove;
+import chess.movecalculator.KnightMove;
+import chess.movecalculator.MoveCalculator;
+import chess.movecalculator.PawnMove;
+import chess.movecalculator.QueenMove;
+import chess.movecalculator.RookMove;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each MoveCalculator subclass: one invocation calculates the moves of every piece of the given type
+ * (both teams) in the position. Positions without that piece type just measure the empty loop.
+ * Run with -prof gc to see allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveCalculatorBenchmark {
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    @Param({"PAWN", "ROOK", "KNIGHT", "BISHOP", "QUEEN", "KING"})
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard board;
+    private List<ChessPosition> squares;
+
+    @Setup
+    public void setup() {
+        board = Positions.load(position).getBoard();
+        squares = new ArrayList<>();
+        for (int index = 0; index < 64; index++) {
+            ChessPiece piece = board.getPiece(index);
+            if (piece != null && piece.getPieceType() == pieceType) {
+                squares.add(ChessPosition.of(index));
+            }
+        }
+    }
+
+    @Benchmark
+    public void calculateMoves(Blackhole blackhole) {
+        for (ChessPosition square : squares) {
+            blackhole.consume(calculator(square).getMoves());
+        }
+    }
+
+    private MoveCalculator calculator(ChessPosition square) {
+        return switch (pieceType) {
+            case PAWN -> new PawnMove(board, square);
+            case ROOK -> new RookMove(board, square);
+            case KNIGHT -> new KnightMove(board, square);
+            case BISHOP -> new BishopMove(board, square);
+            case QUEEN -> new QueenMove(board, square);
+            case KING -> new KingMove(board, square);
+        };
+    }
+}
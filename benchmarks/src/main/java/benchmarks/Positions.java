@@ -0,0 +1,42 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+/**
+ * The positions every engine benchmark runs over, so results from different benchmarks can be compared.
+ * Each is written as the piece placement part of a FEN string (row 8 first, digits for empty squares).
+ */
+final class Positions {
+    static final String OPENING = "opening";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+    static final String CHECKMATE = "checkmate";
+
+    private Positions() {
+    }
+
+    /**
+     * Builds a game for one of the named positions.
+     * @param name is OPENING, MIDDLEGAME, ENDGAME or CHECKMATE
+     * @return a new game set to that position with the right team to move
+     */
+    static ChessGame load(String name) {
+        return switch (name) {
+            // 1. e4 e5 2. Nf3 Nc6
+            case OPENING -> game("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R", ChessGame.TeamColor.WHITE);
+            // Perft test position 6: every piece still on the board and lots of pins and captures
+            case MIDDLEGAME -> game("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1",
+                    ChessGame.TeamColor.WHITE);
+            // Perft test position 3: kings, rooks and pawns
+            case ENDGAME -> game("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8", ChessGame.TeamColor.WHITE);
+            // Scholar's mate, black to move and mated
+            case CHECKMATE -> game("r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR",
+                    ChessGame.TeamColor.BLACK);
+            default -> throw new IllegalArgumentException("Unknown position " + name);
+        };
+    }
+
+    private static ChessGame game(String placement, ChessGame.TeamColor teamToMove) {
+        return ChessGame.fromFen(placement + (teamToMove == ChessGame.TeamColor.WHITE ? " w" : " b") + " - -");
+    }
+}
@@ -6,6 +6,7 @@ import client.websocket.WebSocketClient;
 import com.google.gson.Gson;
 import exception.ResponseException;
 import models.GameData;
+import serialization.Serializer;
 import websocket.commands.UserGameCommand;
 
 import java.net.URI;
@@ -25,7 +26,7 @@ public class GameClient implements Client, GameMessageHandler {
     private final String authToken;
     private GameData game;
     private final String teamColor;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
     private WebSocketClient wsClient;
 
     @Override
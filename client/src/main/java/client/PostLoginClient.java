@@ -4,6 +4,7 @@ import chess.ChessGame;
 import com.google.gson.Gson;
 import exception.ResponseException;
 import models.GameData;
+import serialization.Serializer;
 
 import java.util.Arrays;
 import java.util.List;
@@ -12,7 +13,7 @@ public class PostLoginClient implements Client{
     private final ServerFacade server;
     private final String authToken;
     private List<GameData> cachedGames = null;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     // models for gson serialization
     private record MessageResponse(String message) {}
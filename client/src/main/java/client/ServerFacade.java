@@ -2,9 +2,9 @@ package client;
 
 import chess.ChessGame;
 import chess.ChessMove;
-import com.google.gson.Gson;
 import models.*;
 import exception.ResponseException;
+import serialization.Serializer;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -165,7 +165,7 @@ public class ServerFacade {
         }
         try (InputStream inputStream = connection.getInputStream()) {
             InputStreamReader reader = new InputStreamReader(inputStream);
-            return new Gson().fromJson(reader, responseClass);
+            return Serializer.GSON.fromJson(reader, responseClass);
         }
     }
 
@@ -197,7 +197,7 @@ public class ServerFacade {
     private static void writeJsonBody(Object request, HttpURLConnection connection) throws IOException {
         if (request != null) {
             connection.addRequestProperty("Content-Type", "application/json");
-            String jsonRequest = new Gson().toJson(request);
+            String jsonRequest = Serializer.GSON.toJson(request);
             try (OutputStream requestBody = connection.getOutputStream()) {
                 requestBody.write(jsonRequest.getBytes());
             }
@@ -3,6 +3,7 @@ package client.websocket;
 import com.google.gson.Gson;
 import jakarta.websocket.*;
 import models.GameData;
+import serialization.Serializer;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ServerMessage;
 
@@ -12,7 +13,7 @@ import java.util.Scanner;
 
 public class WebSocketClient extends Endpoint {
     private final Session session;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
     private final GameMessageHandler gameMessageHandler;
 
     public WebSocketClient(URI uri, GameMessageHandler handler) throws Exception {
@@ -0,0 +1,89 @@
+package dataaccess;
+
+import dataaccess.interfaces.AuthDataAccess;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthTokenSweeper deletes expired auth tokens on a background thread, so tokens nobody logs out of don't pile
+ * up in the AuthData table forever. Each run deletes in batches of batchSize until a batch comes back short,
+ * with a cap on batches per run so one run can't hog the database after a long outage; whatever's left gets
+ * picked up next time.
+ */
+public class AuthTokenSweeper {
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final long DEFAULT_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final AuthDataAccess authDAO;
+    private final int batchSize;
+    private final long intervalMillis;
+    private ScheduledExecutorService executor;
+
+    public AuthTokenSweeper(AuthDataAccess authDAO) {
+        this(authDAO, DEFAULT_BATCH_SIZE, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param authDAO is the data access to sweep
+     * @param batchSize is the most tokens to delete in one statement
+     * @param intervalMillis is how long to wait between runs
+     */
+    public AuthTokenSweeper(AuthDataAccess authDAO, int batchSize, long intervalMillis) {
+        this.authDAO = authDAO;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts sweeping in the background. Does nothing if it's already running.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-token-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sweepQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background sweeping.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Runs one sweep now.
+     * @return the number of tokens deleted
+     */
+    public int sweep() throws DataAccessException {
+        int total = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            int deleted = authDAO.deleteExpired(batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (DataAccessException e) {
+            // An exception would cancel the schedule, so just try again next time
+            System.out.println("AUTH SWEEP ERROR: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package dataaccess;
+
+import dataaccess.interfaces.AuthDataAccess;
+import dataaccess.interfaces.AuthDataAccess.ExpiringAuthData;
+import models.AuthData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CachingAuthDataAccess sits in front of another AuthDataAccess and keeps the tokens it has seen in memory, so
+ * checking the token on every request (sometimes twice, for a WebSocket move) is a map lookup instead of a
+ * database query. New tokens are cached when they're created, and entries expire after a short TTL or when the
+ * token itself expires, whichever comes first.
+ * <p>
+ * The TTL is short because a logout or sweep on another server can't reach this cache: that server deletes the
+ * token from the shared database, and this one keeps accepting it until its cached entry runs out.
+ * <p>
+ * Logging out or clearing removes tokens from the cache right away. A lookup that was already reading the
+ * database when that happened could otherwise put the deleted token back, so every delete bumps an
+ * invalidation counter and a lookup only caches its result if the counter didn't change while it was reading.
+ * Unknown tokens aren't cached, so bad tokens can't fill the cache up.
+ */
+public class CachingAuthDataAccess implements AuthDataAccess {
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final AuthDataAccess authDAO;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<String, CachedAuth> cache = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private record CachedAuth(AuthData authData, long expiresAt) {
+    }
+
+    public CachingAuthDataAccess(AuthDataAccess authDAO) {
+        this(authDAO, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param authDAO is the data access the cache reads through to
+     * @param maxSize is the most tokens to keep cached
+     * @param ttlMillis is how long a cached token is trusted before it's read again
+     */
+    public CachingAuthDataAccess(AuthDataAccess authDAO, int maxSize, long ttlMillis) {
+        this.authDAO = authDAO;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Creates a token and caches it. Its expiry isn't known here, but it was just made, so it won't expire
+     * within the TTL.
+     */
+    @Override
+    public void createAuthData(AuthData authData) throws DataAccessException {
+        long seen = invalidations.get();
+        authDAO.createAuthData(authData);
+        cache(authData.authToken(), authData, Long.MAX_VALUE, seen);
+    }
+
+    @Override
+    public void deleteAuthData(String authData) throws DataAccessException {
+        if (authData == null) {
+            authDAO.deleteAuthData(null);
+            return;
+        }
+        cache.remove(authData);
+        try {
+            authDAO.deleteAuthData(authData);
+        } finally {
+            invalidations.incrementAndGet();
+            cache.remove(authData);
+        }
+    }
+
+    @Override
+    public AuthData getAuthData(String authData) throws DataAccessException {
+        if (authData == null) {
+            return authDAO.getAuthData(null);
+        }
+        CachedAuth cached = cache.get(authData);
+        if (cached != null && System.nanoTime() - cached.expiresAt() < 0) {
+            return cached.authData();
+        }
+
+        long seen = invalidations.get();
+        ExpiringAuthData auth = authDAO.getExpiringAuthData(authData);
+        cache(authData, auth.authData(), auth.expiresAt(), seen);
+        return auth.authData();
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        try {
+            authDAO.clear();
+        } finally {
+            invalidations.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    /**
+     * Sweeps expired tokens from the underlying data access. Tokens only expire after going unused for a long
+     * time (longer than the cache TTL) or after their max lifetime, so at worst a cached token outlives its
+     * expiry by the TTL.
+     */
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        return authDAO.deleteExpired(limit);
+    }
+
+    /**
+     * Caches a token, unless a delete happened since the caller started reading it.
+     * @param expiresAt is when the token expires, in epoch milliseconds; the entry doesn't outlive it
+     * @param seen is the invalidation count from before the database was read
+     */
+    private void cache(String token, AuthData auth, long expiresAt, long seen) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(expiresAt - System.currentTimeMillis());
+        if (auth == null || remainingNanos <= 0) {
+            return;
+        }
+        CachedAuth entry = new CachedAuth(auth, System.nanoTime() + Math.min(ttlNanos, remainingNanos));
+        cache.compute(token, (key, old) -> invalidations.get() == seen ? entry : old);
+        if (cache.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * evict makes room once the cache is over its size: expired tokens go first, then the ones closest to
+     * expiring (the oldest), until it's down to 90% so this doesn't run on every insert.
+     */
+    private synchronized void evict() {
+        if (cache.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        cache.values().removeIf(cached -> now - cached.expiresAt() >= 0);
+
+        int target = maxSize - maxSize / 10;
+        int excess = cache.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        cache.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.expiresAt() - now, b.expiresAt() - now)))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(cache::remove);
+    }
+}
@@ -0,0 +1,372 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionPool keeps a bounded set of open database connections so DAO calls don't each pay for a new
+ * MySQL handshake. Connections are borrowed with borrow() and go back to the pool when the caller closes them,
+ * so the usual try-with-resources block works the same as it did with unpooled connections.
+ * <p>
+ * A connection is validated when it's borrowed if it has sat idle for a while, and retired once it's older
+ * than the max lifetime. If leak detection is on, a connection that's been borrowed longer than the threshold
+ * gets reported once, with the stack trace of whoever borrowed it. That means capturing a stack trace on every
+ * borrow, so it's meant for tracking a leak down rather than leaving on. Borrow counts and wait times are kept
+ * for getStats().
+ * <p>
+ * Each connection also keeps a StatementCache, so prepareStatement(sql) on a borrowed connection reuses the
+ * statement prepared for the same SQL by an earlier borrower.
+ */
+public class ConnectionPool {
+    // A connection used this recently is assumed to still be good, which skips the validation round trip
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens a new physical connection for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * A snapshot of the pool's size and wait-time metrics.
+     * @param total is the number of open connections, borrowed or idle
+     * @param active is the number of borrowed connections
+     * @param borrows is the number of successful borrows
+     * @param timeouts is the number of borrows that gave up waiting for a connection
+     * @param leaks is the number of connections reported as possibly leaked
+     * @param totalWaitNanos is the total time spent in borrow()
+     * @param maxWaitNanos is the longest time a single borrow() took
+     * @param statementHits is the number of prepareStatement calls that reused a cached statement
+     * @param statementMisses is the number of prepareStatement calls that prepared a new statement
+     */
+    public record Stats(int total, int active, long borrows, long timeouts, long leaks,
+                        long totalWaitNanos, long maxWaitNanos, long statementHits, long statementMisses) {
+        public double averageWaitMillis() {
+            return borrows == 0 ? 0 : totalWaitNanos / (borrows * 1_000_000.0);
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+    private final long maxLifetimeNanos;
+    private final long leakThresholdNanos;
+    private final int statementCacheSize;
+
+    // Most recently returned first, so the same few connections stay warm
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = new HashSet<>();
+    private int total;
+    private boolean closed;
+
+    private long borrows;
+    private long timeouts;
+    private long leaks;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    /**
+     * @param factory opens new connections
+     * @param maxSize is the most connections the pool will have open at once
+     * @param borrowTimeoutMillis is how long borrow() waits for a connection before giving up
+     * @param maxLifetimeMillis is how long a connection is kept before it's closed and replaced
+     * @param leakThresholdMillis is how long a connection can be borrowed before it's reported, or 0 to turn
+     *                            leak detection off
+     * @param statementCacheSize is how many prepared statements each connection keeps, or 0 to not cache them
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis,
+                          long maxLifetimeMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Borrows a connection, reusing an idle one if there is one, opening a new one if the pool isn't full, and
+     * otherwise waiting for one to be returned. Closing the returned connection gives it back to the pool.
+     * @return a connection that must be closed when the caller is done with it
+     * @throws SQLTimeoutException if no connection came free within the borrow timeout
+     * @throws SQLException if the pool is closed or a new connection couldn't be opened
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeoutNanos;
+        while (true) {
+            PooledConnection pooled;
+            synchronized (this) {
+                checkForLeaks(start);
+                while (!closed && idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts++;
+                        throw new SQLTimeoutException("Timed out waiting for a database connection (all "
+                                + maxSize + " are in use)");
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted waiting for a database connection", e);
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                pooled = idle.pollFirst();
+                if (pooled == null) {
+                    total++;
+                }
+            }
+
+            if (pooled == null) {
+                pooled = open();
+            }
+            else if (!isUsable(pooled)) {
+                discard(pooled);
+                continue;
+            }
+            return lend(pooled, start);
+        }
+    }
+
+    /**
+     * @return a snapshot of the pool's metrics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(total, active.size(), borrows, timeouts, leaks, totalWaitNanos, maxWaitNanos,
+                statementHits.sum(), statementMisses.sum());
+    }
+
+    /**
+     * Closes every idle connection and stops lending new ones. Borrowed connections are closed when
+     * they're returned.
+     */
+    public void close() {
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayDeque<>(idle);
+            total -= idle.size();
+            idle.clear();
+            notifyAll();
+        }
+        for (PooledConnection pooled : toClose) {
+            pooled.statements.close();
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        try {
+            Connection physical = factory.open();
+            return new PooledConnection(physical, System.nanoTime(),
+                    new StatementCache(physical, statementCacheSize, statementHits, statementMisses));
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                total--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.nanoTime();
+        if (now - pooled.createdAt > maxLifetimeNanos) {
+            return false;
+        }
+        if (now - pooled.lastUsed < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private synchronized Connection lend(PooledConnection pooled, long start) {
+        long now = System.nanoTime();
+        long wait = now - start;
+        borrows++;
+        totalWaitNanos += wait;
+        maxWaitNanos = Math.max(maxWaitNanos, wait);
+
+        pooled.borrowedAt = now;
+        pooled.leakReported = false;
+        pooled.borrowTrace = leakThresholdNanos > 0 ? new Throwable("Connection borrowed here") : null;
+        active.add(pooled);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handle(pooled));
+    }
+
+    /**
+     * Takes back a connection whose borrower closed it. Statements the borrower left open are closed, anything
+     * left uncommitted is rolled back, and a connection past its lifetime (or that fails to reset) is closed
+     * instead of reused.
+     */
+    private void release(PooledConnection pooled) {
+        boolean reusable = System.nanoTime() - pooled.createdAt <= maxLifetimeNanos;
+        try {
+            pooled.statements.release();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        synchronized (this) {
+            active.remove(pooled);
+            if (reusable && !closed) {
+                pooled.lastUsed = System.nanoTime();
+                idle.addFirst(pooled);
+                notify();
+                return;
+            }
+        }
+        discard(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.statements.close();
+        closeQuietly(pooled.physical);
+        synchronized (this) {
+            total--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * checkForLeaks reports connections that have been borrowed for longer than the leak threshold. It runs on
+     * every borrow (the pool is small), since a leak only matters once someone else needs a connection.
+     */
+    private void checkForLeaks(long now) {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        for (PooledConnection pooled : active) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdNanos) {
+                pooled.leakReported = true;
+                leaks++;
+                System.out.println("DATABASE CONNECTION LEAK: borrowed "
+                        + TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt) + "ms ago and not closed");
+                pooled.borrowTrace.printStackTrace(System.out);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // It's being thrown away anyway
+        }
+    }
+
+    /**
+     * A physical connection plus the pool's bookkeeping for it.
+     */
+    private static class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private final StatementCache statements;
+        private long lastUsed;
+        private long borrowedAt;
+        private boolean leakReported;
+        private Throwable borrowTrace;
+
+        private PooledConnection(Connection physical, long createdAt, StatementCache statements) {
+            this.physical = physical;
+            this.createdAt = createdAt;
+            this.statements = statements;
+            this.lastUsed = createdAt;
+        }
+    }
+
+    /**
+     * Handle is what the borrower actually gets: every call goes to the physical connection, except close(),
+     * which returns it to the pool, and prepareStatement(sql), which goes through the statement cache. Each
+     * borrow gets its own handle, so closing a handle twice or using it after closing can't touch the next
+     * borrower's connection.
+     */
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return handleClosed || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + pooled.physical;
+                }
+                case "prepareStatement" -> {
+                    if (handleClosed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    if (args.length == 1) {
+                        return pooled.statements.prepare((String) args[0]);
+                    }
+                    return invokePhysical(method, args);
+                }
+                default -> {
+                    if (handleClosed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    return invokePhysical(method, args);
+                }
+            }
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -8,6 +8,12 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static int poolSize;
+    private static long poolTimeout;
+    private static long poolMaxLifetime;
+    private static long poolLeakThreshold;
+    private static int statementCacheSize;
+    private static volatile ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -30,10 +36,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
+     * Borrows a connection from the pool, with its catalog already set based upon the
      * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * be short-lived, and you must close the connection when you are done with it
+     * (closing it gives it back to the pool). The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -44,14 +51,40 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool.borrow();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    /**
+     * @return the connection pool's size and wait-time metrics
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Closes every pooled connection (and the statements cached on them) when the server stops. The pool is
+     * swapped for a fresh, empty one first, so a server started again in the same JVM just opens new connections.
+     */
+    public static synchronized void close() {
+        ConnectionPool old = pool;
+        pool = newPool();
+        old.close();
+    }
+
+    private static ConnectionPool newPool() {
+        return new ConnectionPool(DatabaseManager::openConnection, poolSize, poolTimeout, poolMaxLifetime,
+                poolLeakThreshold, statementCacheSize);
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
+        conn.setCatalog(databaseName);
+        return conn;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -72,6 +105,16 @@ public class DatabaseManager {
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
-        connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+        // Server-side prepared statements, so the statements the pool caches are parsed by MySQL only once
+        connectionUrl = String.format("jdbc:mysql://%s:%d?useServerPrepStmts=true", host, port);
+
+        // Pool settings are optional
+        poolSize = Integer.parseInt(props.getProperty("db.pool.size", "10"));
+        poolTimeout = Long.parseLong(props.getProperty("db.pool.timeoutMillis", "5000"));
+        poolMaxLifetime = Long.parseLong(props.getProperty("db.pool.maxLifetimeMillis", "1800000"));
+        // Leak detection records a stack trace on every borrow, so it's off unless a threshold is set
+        poolLeakThreshold = Long.parseLong(props.getProperty("db.pool.leakThresholdMillis", "0"));
+        statementCacheSize = Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "32"));
+        pool = newPool();
     }
 }
@@ -0,0 +1,88 @@
+package dataaccess;
+
+import dataaccess.interfaces.AuthDataAccess;
+import dataaccess.interfaces.RevokedTokenDataAccess;
+import models.AuthData;
+
+/**
+ * SignedTokenAuthDataAccess is the AuthDataAccess for signed tokens (see TokenSigner). Nothing is stored when a
+ * token is created, since the token itself says who it belongs to and when it expires; getAuthData checks the
+ * signature first, so forged or expired tokens never reach the database.
+ * <p>
+ * Logouts and clears go in a RevokedTokenDataAccess that every server shares, so they take effect everywhere
+ * and survive restarts. Logged-out tokens only stay there until they would have expired anyway (the sweeper
+ * drops them after that), and clear() revokes every token issued before it. Asking the store on every request
+ * would put a database read back on the hot path, so the server puts a CachingAuthDataAccess in front of this;
+ * a logout on another server takes at most the cache's TTL to show up here.
+ */
+public class SignedTokenAuthDataAccess implements AuthDataAccess {
+    private final TokenSigner signer;
+    private final RevokedTokenDataAccess revokedDAO;
+
+    /**
+     * @param signer checks the tokens
+     * @param revokedDAO is the revocation store shared by every server using the same signing key
+     */
+    public SignedTokenAuthDataAccess(TokenSigner signer, RevokedTokenDataAccess revokedDAO) {
+        if (revokedDAO == null) {
+            throw new IllegalArgumentException("Signed tokens need a shared revocation store");
+        }
+        this.signer = signer;
+        this.revokedDAO = revokedDAO;
+    }
+
+    @Override
+    public void createAuthData(AuthData authData) throws DataAccessException {
+        TokenSigner.Claims claims = signer.verify(authData.authToken());
+        if (claims == null || !claims.username().equals(authData.username())) {
+            throw new DataAccessException("CreateAuthdata failure: token isn't signed for " + authData.username());
+        }
+    }
+
+    @Override
+    public void deleteAuthData(String authData) throws DataAccessException {
+        TokenSigner.Claims claims = check(authData);
+        revokedDAO.revoke(tokenId(authData), claims.expiresAt());
+    }
+
+    @Override
+    public AuthData getAuthData(String authData) throws DataAccessException {
+        return new AuthData(authData, check(authData).username());
+    }
+
+    @Override
+    public ExpiringAuthData getExpiringAuthData(String authData) throws DataAccessException {
+        TokenSigner.Claims claims = check(authData);
+        return new ExpiringAuthData(new AuthData(authData, claims.username()), claims.expiresAt());
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        revokedDAO.revokeAll(System.currentTimeMillis());
+    }
+
+    /**
+     * Nothing is stored for signed tokens, so this just drops revoked tokens that have expired (they're
+     * rejected anyway, so they don't need to stay revoked).
+     */
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        return revokedDAO.deleteExpired(limit);
+    }
+
+    private TokenSigner.Claims check(String token) throws DataAccessException {
+        TokenSigner.Claims claims = signer.verify(token);
+        if (claims == null || revokedDAO.isRevoked(tokenId(token), claims.issuedAt())) {
+            throw new DataAccessException("unauthorized");
+        }
+        return claims;
+    }
+
+    /**
+     * The signature is unique per token (the nonce sees to that) and is useless without the rest of the token,
+     * so it's what gets stored instead of the token itself.
+     */
+    private static String tokenId(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+}
@@ -3,13 +3,31 @@ package dataaccess;
 import dataaccess.interfaces.AuthDataAccess;
 import models.AuthData;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 public class SqlAuthDataAccess extends SqlDataAccess implements AuthDataAccess {
+    // lastUsed is only written back when it's at least this old, so reading a token isn't a write every time
+    private static final long TOUCH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
 
     public SqlAuthDataAccess () {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_MAX_LIFETIME_MILLIS);
+    }
+
+    /**
+     * @param idleTimeoutMillis is how long a token can go unused before it expires
+     * @param maxLifetimeMillis is how long a token lasts no matter how much it's used
+     */
+    public SqlAuthDataAccess(long idleTimeoutMillis, long maxLifetimeMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
         try {
             configureDatabase();
+            migrateExpiryColumns();
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
@@ -18,11 +36,16 @@ public class SqlAuthDataAccess extends SqlDataAccess implements AuthDataAccess {
     @Override
     public void createAuthData(AuthData authData) throws DataAccessException {
         try (var connection = DatabaseManager.getConnection()) {
-            String insert = "INSERT INTO AuthData (authToken, username) VALUES (?, ?)";
+            String insert = "INSERT INTO AuthData (authToken, username, createdAt, lastUsed, expiresAt) " +
+                    "VALUES (?, ?, ?, ?, ?)";
+            long now = System.currentTimeMillis();
 
             try (var preparedStatement = connection.prepareStatement(insert)) {
                 preparedStatement.setString(1, authData.authToken());
                 preparedStatement.setString(2, authData.username());
+                preparedStatement.setLong(3, now);
+                preparedStatement.setLong(4, now);
+                preparedStatement.setLong(5, now + Math.min(idleTimeoutMillis, maxLifetimeMillis));
                 preparedStatement.executeUpdate();
             }
         } catch (SQLException | DataAccessException e) {
@@ -52,6 +75,11 @@ public class SqlAuthDataAccess extends SqlDataAccess implements AuthDataAccess {
 
     @Override
     public AuthData getAuthData(String authData) throws DataAccessException {
+        return getExpiringAuthData(authData).authData();
+    }
+
+    @Override
+    public ExpiringAuthData getExpiringAuthData(String authData) throws DataAccessException {
         try (var connection = DatabaseManager.getConnection()) {
             String fetch = "SELECT * FROM AuthData WHERE authToken = ?";
 
@@ -59,11 +87,17 @@ public class SqlAuthDataAccess extends SqlDataAccess implements AuthDataAccess {
                 preparedStatement.setString(1, authData);
 
                 try (var response = preparedStatement.executeQuery()) {
-                    if (!response.next()) {
+                    long now = System.currentTimeMillis();
+                    if (!response.next() || response.getLong("expiresAt") <= now) {
                         throw new DataAccessException("AuthToken not found");
                     }
-                    return new AuthData(response.getString("authToken"),
+                    AuthData auth = new AuthData(response.getString("authToken"),
                             response.getString("username"));
+                    long expiresAt = response.getLong("expiresAt");
+                    if (now - response.getLong("lastUsed") >= TOUCH_INTERVAL_MILLIS) {
+                        expiresAt = touch(connection, authData, now, response.getLong("createdAt"));
+                    }
+                    return new ExpiringAuthData(auth, expiresAt);
                 }
             }
         } catch (SQLException e) {
@@ -84,11 +118,78 @@ public class SqlAuthDataAccess extends SqlDataAccess implements AuthDataAccess {
         }
     }
 
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            // Uses the expiresAt index, and the limit keeps each delete (and the locks it holds) short
+            String sweep = "DELETE FROM AuthData WHERE expiresAt <= ? ORDER BY expiresAt LIMIT ?";
+
+            try (var preparedStatement = connection.prepareStatement(sweep)) {
+                preparedStatement.setLong(1, System.currentTimeMillis());
+                preparedStatement.setInt(2, limit);
+                return preparedStatement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Authdata sweep failure: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marks a token as used now, which pushes its idle expiry back (but never past its max lifetime).
+     * @return the token's new expiry
+     */
+    private long touch(Connection connection, String authToken, long now, long createdAt) throws SQLException {
+        String update = "UPDATE AuthData SET lastUsed = ?, expiresAt = ? WHERE authToken = ?";
+        long expiresAt = Math.min(now + idleTimeoutMillis, createdAt + maxLifetimeMillis);
+
+        try (var preparedStatement = connection.prepareStatement(update)) {
+            preparedStatement.setLong(1, now);
+            preparedStatement.setLong(2, expiresAt);
+            preparedStatement.setString(3, authToken);
+            preparedStatement.executeUpdate();
+        }
+        return expiresAt;
+    }
+
+    /**
+     * migrateExpiryColumns adds the timestamp columns to an AuthData table made before tokens expired.
+     * Existing tokens count as created now, so nobody gets logged out by the upgrade.
+     */
+    private void migrateExpiryColumns() throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            if (columnType(connection, "AuthData", "expiresAt") != null) {
+                return;
+            }
+            String alter = "ALTER TABLE AuthData ADD COLUMN `createdAt` BIGINT NOT NULL DEFAULT 0, " +
+                    "ADD COLUMN `lastUsed` BIGINT NOT NULL DEFAULT 0, " +
+                    "ADD COLUMN `expiresAt` BIGINT NOT NULL DEFAULT 0, ADD INDEX (expiresAt)";
+            try (var preparedStatement = connection.prepareStatement(alter)) {
+                preparedStatement.executeUpdate();
+            }
+
+            long now = System.currentTimeMillis();
+            String update = "UPDATE AuthData SET createdAt = ?, lastUsed = ?, expiresAt = ?";
+            try (var preparedStatement = connection.prepareStatement(update)) {
+                preparedStatement.setLong(1, now);
+                preparedStatement.setLong(2, now);
+                preparedStatement.setLong(3, now + Math.min(idleTimeoutMillis, maxLifetimeMillis));
+                preparedStatement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Authdata migration failure: " + e.getMessage());
+        }
+    }
+
+    // Times are epoch milliseconds
     private final String[] createStatements = {
             """
                 CREATE TABLE IF NOT EXISTS AuthData (
                 `authToken` varChar(64) NOT NULL PRIMARY KEY,
-                `username` varChar(256) NOT NULL
+                `username` varChar(256) NOT NULL,
+                `createdAt` BIGINT NOT NULL,
+                `lastUsed` BIGINT NOT NULL,
+                `expiresAt` BIGINT NOT NULL,
+                INDEX (expiresAt)
                 )
             """
     };
@@ -38,5 +38,24 @@ public abstract class SqlDataAccess implements SqlAccess {
         }
     }
 
+    /**
+     * Looks up a column's type, for migrating tables made by older versions of the server.
+     * @param connection is the connection to use
+     * @param table is the table name
+     * @param column is the column name
+     * @return the column's DATA_TYPE (like "text" or "blob"), or null if the column doesn't exist
+     */
+    protected static String columnType(Connection connection, String table, String column) throws SQLException {
+        String query = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (var preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setString(1, table);
+            preparedStatement.setString(2, column);
+            try (var response = preparedStatement.executeQuery()) {
+                return response.next() ? response.getString(1) : null;
+            }
+        }
+    }
+
     protected abstract String[] getCreateStatements();
 }
\ No newline at end of file
@@ -1,10 +1,11 @@
 package dataaccess;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
 import dataaccess.interfaces.GameDataAccess;
 import models.GameData;
+import serialization.Serializer;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -16,6 +17,7 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
     public SqlGameDataAccess () {
         try {
             configureDatabase();
+            migrateGameColumn();
         } catch (DataAccessException e) {
             throw new RuntimeException(e);
         }
@@ -26,10 +28,9 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
         List<GameData> games = new ArrayList<GameData>();
         String list = "SELECT * FROM GameData ORDER BY gameID";
 
-        try (var connection = DatabaseManager.getConnection()) {
-            var preparedStatement = connection.prepareStatement(list);
-            var response = preparedStatement.executeQuery();
-
+        try (var connection = DatabaseManager.getConnection();
+             var preparedStatement = connection.prepareStatement(list);
+             var response = preparedStatement.executeQuery()) {
             while (response.next()) {
                 games.add(parseGameData(response));
             }
@@ -53,9 +54,7 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
             }
 
             String name = response.getString("gameName");
-            String game = response.getString("game");
-
-            ChessGame chessGame = new Gson().fromJson(game, ChessGame.class);
+            ChessGame chessGame = decodeGame(response.getBytes("game"));
             GameData.GameStatus status = GameData.GameStatus.PREGAME;
             String gameStatus = response.getString("status");
 
@@ -69,7 +68,51 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
 
             return new GameData (gameID, white, black, name, chessGame, status);
         } catch (Exception e) {
-            throw new DataAccessException("Json is invalid: " + e.getMessage());
+            throw new DataAccessException("Game data is invalid: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a stored game. Games are stored with ChessGame.toBytes, but rows saved before the column was binary
+     * hold JSON text, so those (starting with '{' or '"') still go through Gson.
+     * @param bytes is the game column of a row
+     * @return the decoded game
+     */
+    private static ChessGame decodeGame(byte[] bytes) {
+        if (bytes.length > 0 && (bytes[0] == '{' || bytes[0] == '"')) {
+            return Serializer.GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), ChessGame.class);
+        }
+        return ChessGame.fromBytes(bytes);
+    }
+
+    /**
+     * migrateGameColumn converts a GameData table made when the game column was JSON TEXT: the column becomes
+     * a BLOB (MySQL keeps the text's bytes), then every row is re-encoded in the binary form in one batch.
+     * It does nothing if the column is already a BLOB.
+     */
+    private void migrateGameColumn() throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            String type = columnType(connection, "GameData", "game");
+            if (type == null || type.equalsIgnoreCase("blob")) {
+                return;
+            }
+
+            try (var preparedStatement = connection.prepareStatement("ALTER TABLE GameData MODIFY `game` BLOB NOT NULL")) {
+                preparedStatement.executeUpdate();
+            }
+
+            try (var select = connection.prepareStatement("SELECT gameID, game FROM GameData");
+                 var update = connection.prepareStatement("UPDATE GameData SET game = ? WHERE gameID = ?");
+                 var response = select.executeQuery()) {
+                while (response.next()) {
+                    update.setBytes(1, decodeGame(response.getBytes("game")).toBytes());
+                    update.setInt(2, response.getInt("gameID"));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Game column migration failure: " + e.getMessage());
         }
     }
 
@@ -98,7 +141,6 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
         try (var connection = DatabaseManager.getConnection()) {
             String create = "INSERT INTO GameData (gameID, whiteUsername, blackUsername, gameName, game, status)" +
                     "VALUES (?, ?, ?, ?, ?, ?)";
-            Gson gson = new Gson();
 
             try (var preparedStatement = connection.prepareStatement(create)) {
                 preparedStatement.setInt(1, gameData.gameID());
@@ -107,8 +149,7 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
                 preparedStatement.setString(4, gameData.gameName());
 
                 // Serialize the game data
-                String gameJson = gson.toJson(gameData.game());
-                preparedStatement.setString(5, gameJson);
+                preparedStatement.setBytes(5, gameData.game().toBytes());
 
                 GameData.GameStatus status = gameData.status();
                 preparedStatement.setString(6, status != null ? status.name() : GameData.GameStatus.PREGAME.name());
@@ -125,15 +166,13 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
         try (var connection = DatabaseManager.getConnection()) {
             String update = "UPDATE GameData SET whiteUsername = ?, blackUsername = ?, gameName = ?, game = ?, status = ?" +
                     " WHERE gameID = ?";
-            Gson gson = new Gson();
 
             try (var preparedStatement = connection.prepareStatement(update)) {
                 preparedStatement.setObject(1,gameData.whiteUsername());
                 preparedStatement.setObject(2, gameData.blackUsername());
                 preparedStatement.setString(3, gameData.gameName());
 
-                String updateJson = gson.toJson(gameData.game());
-                preparedStatement.setString(4, updateJson);
+                preparedStatement.setBytes(4, gameData.game().toBytes());
 
                 GameData.GameStatus status = gameData.status();
                 preparedStatement.setString(5, status != null ? status.name() : GameData.GameStatus.PREGAME.name());
@@ -166,7 +205,7 @@ public class SqlGameDataAccess extends SqlDataAccess implements GameDataAccess {
                 `whiteUsername` VARCHAR(255),
                 `blackUsername` VARCHAR(255),
                 `gameName` VARCHAR(255) NOT NULL,
-                `game` TEXT NOT NULL,
+                `game` BLOB NOT NULL,
                 `status` VARCHAR(20) NOT NULL DEFAULT 'PREGAME',
                 FOREIGN KEY (whiteUsername) REFERENCES UserData(username) ON DELETE SET NULL,
                 FOREIGN KEY (blackUsername) REFERENCES UserData(username) ON DELETE SET NULL
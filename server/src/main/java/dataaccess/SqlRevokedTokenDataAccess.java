@@ -0,0 +1,108 @@
+package dataaccess;
+
+import dataaccess.interfaces.RevokedTokenDataAccess;
+
+import java.sql.SQLException;
+
+public class SqlRevokedTokenDataAccess extends SqlDataAccess implements RevokedTokenDataAccess {
+
+    public SqlRevokedTokenDataAccess () {
+        try {
+            configureDatabase();
+        } catch (DataAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAt) throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            // Revoking the same token twice (two logouts racing) is fine
+            String insert = "INSERT IGNORE INTO RevokedTokens (tokenId, expiresAt) VALUES (?, ?)";
+
+            try (var preparedStatement = connection.prepareStatement(insert)) {
+                preparedStatement.setString(1, tokenId);
+                preparedStatement.setLong(2, expiresAt);
+                preparedStatement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Revoke token failure: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId, long issuedAt) throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            // One round trip for both checks
+            String fetch = "SELECT (SELECT notBefore FROM TokenCutoff WHERE id = 1) > ? " +
+                    "OR EXISTS (SELECT 1 FROM RevokedTokens WHERE tokenId = ?)";
+
+            try (var preparedStatement = connection.prepareStatement(fetch)) {
+                preparedStatement.setLong(1, issuedAt);
+                preparedStatement.setString(2, tokenId);
+
+                try (var response = preparedStatement.executeQuery()) {
+                    return response.next() && response.getBoolean(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Revoked token check failure: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves the cutoff forward. The individually revoked tokens are left for the sweeper: deleting them here
+     * could also delete one issued (and logged out) after the cutoff by another server at the same time.
+     */
+    @Override
+    public void revokeAll(long notBefore) throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            String update = "UPDATE TokenCutoff SET notBefore = GREATEST(notBefore, ?) WHERE id = 1";
+
+            try (var preparedStatement = connection.prepareStatement(update)) {
+                preparedStatement.setLong(1, notBefore);
+                preparedStatement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Revoke all tokens failure: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int deleteExpired(int limit) throws DataAccessException {
+        try (var connection = DatabaseManager.getConnection()) {
+            String sweep = "DELETE FROM RevokedTokens WHERE expiresAt <= ? ORDER BY expiresAt LIMIT ?";
+
+            try (var preparedStatement = connection.prepareStatement(sweep)) {
+                preparedStatement.setLong(1, System.currentTimeMillis());
+                preparedStatement.setInt(2, limit);
+                return preparedStatement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Revoked token sweep failure: " + e.getMessage());
+        }
+    }
+
+    // Times are epoch milliseconds. TokenCutoff only ever has the one row
+    private final String[] createStatements = {
+            """
+                CREATE TABLE IF NOT EXISTS RevokedTokens (
+                `tokenId` varChar(64) NOT NULL PRIMARY KEY,
+                `expiresAt` BIGINT NOT NULL,
+                INDEX (expiresAt)
+                )
+            """,
+            """
+                CREATE TABLE IF NOT EXISTS TokenCutoff (
+                `id` TINYINT NOT NULL PRIMARY KEY,
+                `notBefore` BIGINT NOT NULL
+                )
+            """,
+            "INSERT IGNORE INTO TokenCutoff (id, notBefore) VALUES (1, 0)"
+    };
+
+    @Override
+    protected String[] getCreateStatements() {
+        return createStatements;
+    }
+}
@@ -0,0 +1,202 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementCache keeps the prepared statements of one pooled connection, keyed by their SQL text, so the DAOs'
+ * handful of queries get prepared once per connection instead of once per call. The cache is an LRU map; the
+ * least recently used statement is closed when it's full.
+ * <p>
+ * prepare hands out a handle to the cached statement, and closing the handle just clears its parameters and
+ * result so the next caller can reuse it. If the same SQL is already in use on this connection (or caching is
+ * off), a normal uncached statement is made instead. When the connection goes back to the pool, release
+ * closes every handle that's still open, so a forgotten statement can't leak into the next borrower.
+ * Like its connection, a StatementCache is only used by one thread at a time.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    private final LinkedHashMap<String, Entry> statements;
+    private final List<Handle> openHandles = new ArrayList<>();
+
+    private static class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * @param connection is the physical connection the statements belong to
+     * @param capacity is the most statements to keep, or 0 to turn caching off
+     * @param hits counts prepares that reused a cached statement (shared across the pool)
+     * @param misses counts prepares that had to prepare a new statement (shared across the pool)
+     */
+    StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.capacity) {
+                    return false;
+                }
+                Entry entry = eldest.getValue();
+                entry.evicted = true;
+                if (!entry.inUse) {
+                    closeQuietly(entry.statement);
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for the SQL, reusing the cached one if it's free.
+     * @param sql is the statement's SQL text
+     * @return a statement handle that must be closed when the caller is done with it
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        Entry entry = capacity > 0 ? statements.get(sql) : null;
+        if (entry != null && !entry.inUse) {
+            hits.increment();
+        }
+        else {
+            misses.increment();
+            PreparedStatement statement = connection.prepareStatement(sql);
+            if (capacity == 0 || entry != null) {
+                return open(new Entry(statement), false);
+            }
+            entry = new Entry(statement);
+            statements.put(sql, entry);
+        }
+        entry.inUse = true;
+        return open(entry, true);
+    }
+
+    /**
+     * Closes every statement handle the borrower left open, when the connection goes back to the pool.
+     * @throws SQLException if a cached statement couldn't be reset
+     */
+    void release() throws SQLException {
+        for (Handle handle : new ArrayList<>(openHandles)) {
+            handle.close();
+        }
+    }
+
+    /**
+     * Closes every statement, when the connection is being thrown away.
+     */
+    void close() {
+        openHandles.clear();
+        for (Iterator<Entry> iterator = statements.values().iterator(); iterator.hasNext(); ) {
+            closeQuietly(iterator.next().statement);
+            iterator.remove();
+        }
+    }
+
+    private PreparedStatement open(Entry entry, boolean cached) {
+        Handle handle = new Handle(entry, cached);
+        openHandles.add(handle);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handle);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // It's being thrown away anyway
+        }
+    }
+
+    /**
+     * Handle passes every call through to the statement, except close(), which gives a cached statement back
+     * to the cache (or really closes an uncached one).
+     */
+    private class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final boolean cached;
+        private boolean closed;
+
+        private Handle(Entry entry, boolean cached) {
+            this.entry = entry;
+            this.cached = cached;
+        }
+
+        private void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            openHandles.remove(this);
+            if (!cached || entry.evicted) {
+                entry.inUse = false;
+                entry.statement.close();
+                return;
+            }
+            try {
+                var resultSet = entry.statement.getResultSet();
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                entry.statement.clearParameters();
+                entry.statement.clearBatch();
+            } finally {
+                entry.inUse = false;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || entry.statement.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return entry.statement.toString();
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    try {
+                        return method.invoke(entry.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package dataaccess;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenSigner makes and checks auth tokens that carry their own username and expiry, signed with HMAC-SHA256,
+ * so checking one is CPU work instead of a database read. A token looks like
+ * {@code <username>.<issuedAt>.<expiresAt>.<nonce>.<signature>}, where the username, nonce and signature are
+ * base64url and the times are epoch milliseconds. The random nonce keeps two tokens from the same millisecond
+ * different, so logging one out doesn't log out the other.
+ * <p>
+ * Every server that shares the key accepts every other server's tokens.
+ */
+public class TokenSigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int NONCE_BYTES = 9;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    // Mac objects aren't thread-safe, and making one per call is slow, so each thread keeps its own
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * What a valid token says about itself.
+     * @param username is who the token was issued to
+     * @param issuedAt is when it was issued, in epoch milliseconds
+     * @param expiresAt is when it stops being valid, in epoch milliseconds
+     */
+    public record Claims(String username, long issuedAt, long expiresAt) {
+    }
+
+    /**
+     * @param key is the shared secret; at least 32 bytes
+     * @param ttlMillis is how long a token is valid after it's issued
+     */
+    public TokenSigner(byte[] key, long ttlMillis) {
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("Signing key must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(key.clone(), ALGORITHM);
+        this.ttlMillis = ttlMillis;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a new signed token for a user.
+     * @param username is who the token is for
+     * @return the token
+     */
+    public String issue(String username) {
+        long issuedAt = System.currentTimeMillis();
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + issuedAt + "."
+                + (issuedAt + ttlMillis) + "." + ENCODER.encodeToString(nonce);
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Checks a token's signature and expiry.
+     * @param token is the token to check
+     * @return what the token says, or null if it's malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart < 0) {
+            return null;
+        }
+        String payload = token.substring(0, signatureStart);
+        String[] parts = payload.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            long issuedAt = Long.parseLong(parts[1]);
+            long expiresAt = Long.parseLong(parts[2]);
+            if (System.currentTimeMillis() >= expiresAt) {
+                return null;
+            }
+            return new Claims(new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8), issuedAt, expiresAt);
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a bad number
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 isn't available", e);
+        }
+    }
+}
@@ -3,12 +3,43 @@ package dataaccess.interfaces;
 import dataaccess.DataAccessException;
 import models.AuthData;
 
+import java.util.concurrent.TimeUnit;
+
 public interface AuthDataAccess {
+    // A token expires once it hasn't been used for the idle timeout, or once it's older than the max lifetime
+    long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(12);
+    long DEFAULT_MAX_LIFETIME_MILLIS = TimeUnit.DAYS.toMillis(7);
+
     void createAuthData(AuthData authData) throws DataAccessException;
 
     void deleteAuthData(String authData) throws DataAccessException;
 
     AuthData getAuthData(String authData) throws DataAccessException;
 
+    /**
+     * A token along with when it expires, for caches that mustn't keep a token past that.
+     * @param authData is the token's auth data
+     * @param expiresAt is when the token expires, in epoch milliseconds
+     */
+    record ExpiringAuthData(AuthData authData, long expiresAt) {
+    }
+
+    /**
+     * Same as getAuthData, but also says when the token expires (as of this lookup, since using a token can push
+     * its expiry back). Data accesses that don't know default to never.
+     * @param authData is the token to look up
+     * @return the token's auth data and expiry
+     */
+    default ExpiringAuthData getExpiringAuthData(String authData) throws DataAccessException {
+        return new ExpiringAuthData(getAuthData(authData), Long.MAX_VALUE);
+    }
+
     void clear() throws DataAccessException;
+
+    /**
+     * Deletes up to limit expired tokens. The sweeper calls this in a loop, so each call stays short.
+     * @param limit is the most tokens to delete in this call
+     * @return the number of tokens deleted
+     */
+    int deleteExpired(int limit) throws DataAccessException;
 }
@@ -0,0 +1,37 @@
+package dataaccess.interfaces;
+
+import dataaccess.DataAccessException;
+
+/**
+ * Where signed tokens get revoked. Signed tokens aren't stored anywhere, so logging one out (or clearing the
+ * database) has to be written down somewhere every server can see, or the other servers keep accepting it.
+ */
+public interface RevokedTokenDataAccess {
+
+    /**
+     * Revokes one token until it would have expired anyway.
+     * @param tokenId identifies the token (its signature, so the token itself isn't stored)
+     * @param expiresAt is when the token expires, in epoch milliseconds
+     */
+    void revoke(String tokenId, long expiresAt) throws DataAccessException;
+
+    /**
+     * @param tokenId identifies the token
+     * @param issuedAt is when the token was issued, in epoch milliseconds
+     * @return true if the token was revoked, or was issued before the last revokeAll
+     */
+    boolean isRevoked(String tokenId, long issuedAt) throws DataAccessException;
+
+    /**
+     * Revokes every token issued before the given time.
+     * @param notBefore is the cutoff, in epoch milliseconds
+     */
+    void revokeAll(long notBefore) throws DataAccessException;
+
+    /**
+     * Forgets up to limit revoked tokens that have expired (they're rejected anyway).
+     * @param limit is the most tokens to forget in this call
+     * @return the number forgotten
+     */
+    int deleteExpired(int limit) throws DataAccessException;
+}
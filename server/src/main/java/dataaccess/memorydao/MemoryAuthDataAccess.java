@@ -4,49 +4,92 @@ import dataaccess.DataAccessException;
 import dataaccess.interfaces.AuthDataAccess;
 import models.AuthData;
 
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
 
 public class MemoryAuthDataAccess implements AuthDataAccess {
-    Collection<AuthData> authTokenDB;
+    // Tokens by token string, plus the same tokens ordered by when they expire, so sweeping only looks at
+    // the expired ones at the front (like the expiresAt index on the SQL table)
+    private final Map<String, TokenEntry> authTokenDB = new HashMap<>();
+    private final TreeSet<TokenEntry> byExpiry = new TreeSet<>(
+            Comparator.comparingLong(TokenEntry::expiresAt).thenComparing(entry -> entry.authData().authToken()));
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+
+    private record TokenEntry(AuthData authData, long createdAt, long lastUsed, long expiresAt) {
+    }
 
     public MemoryAuthDataAccess() {
-        authTokenDB = new HashSet<>();
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_MAX_LIFETIME_MILLIS);
+    }
+
+    /**
+     * @param idleTimeoutMillis is how long a token can go unused before it expires
+     * @param maxLifetimeMillis is how long a token lasts no matter how much it's used
+     */
+    public MemoryAuthDataAccess(long idleTimeoutMillis, long maxLifetimeMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
     }
 
     @Override
-    public void createAuthData(AuthData authData) {
-        authTokenDB.add(authData);
+    public synchronized void createAuthData(AuthData authData) {
+        long now = System.currentTimeMillis();
+        put(new TokenEntry(authData, now, now, now + Math.min(idleTimeoutMillis, maxLifetimeMillis)));
     }
 
 
     @Override
-    public void deleteAuthData(String authData) throws DataAccessException {
-        boolean foundToken = false;
-        for (AuthData token : authTokenDB) {
-            if (token.authToken().equals(authData)) {
-                authTokenDB.remove(token);
-                foundToken = true;
-                break;
-            }
-        }
-        if (!foundToken) {
+    public synchronized void deleteAuthData(String authData) throws DataAccessException {
+        TokenEntry entry = authData == null ? null : authTokenDB.remove(authData);
+        if (entry == null) {
             throw new DataAccessException("unauthorized");
         }
+        byExpiry.remove(entry);
     }
 
     @Override
     public AuthData getAuthData(String authData) throws DataAccessException {
-        for (AuthData token : authTokenDB) {
-            if (token.authToken().equals(authData)) {
-                return token;
-            }
+        return getExpiringAuthData(authData).authData();
+    }
+
+    @Override
+    public synchronized ExpiringAuthData getExpiringAuthData(String authData) throws DataAccessException {
+        TokenEntry entry = authData == null ? null : authTokenDB.get(authData);
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.expiresAt() <= now) {
+            throw new DataAccessException("unauthorized");
         }
-        throw new DataAccessException("unauthorized");
+        // Using a token pushes its idle expiry back
+        long expiresAt = Math.min(now + idleTimeoutMillis, entry.createdAt() + maxLifetimeMillis);
+        put(new TokenEntry(entry.authData(), entry.createdAt(), now, expiresAt));
+        return new ExpiringAuthData(entry.authData(), expiresAt);
     }
 
     @Override
-    public void clear() throws DataAccessException {
+    public synchronized void clear() throws DataAccessException {
         authTokenDB.clear();
+        byExpiry.clear();
+    }
+
+    @Override
+    public synchronized int deleteExpired(int limit) {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        while (deleted < limit && !byExpiry.isEmpty() && byExpiry.first().expiresAt() <= now) {
+            authTokenDB.remove(byExpiry.pollFirst().authData().authToken());
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private void put(TokenEntry entry) {
+        TokenEntry old = authTokenDB.put(entry.authData().authToken(), entry);
+        if (old != null) {
+            byExpiry.remove(old);
+        }
+        byExpiry.add(entry);
     }
 }
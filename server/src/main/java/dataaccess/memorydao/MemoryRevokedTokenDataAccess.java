@@ -0,0 +1,40 @@
+package dataaccess.memorydao;
+
+import dataaccess.interfaces.RevokedTokenDataAccess;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class MemoryRevokedTokenDataAccess implements RevokedTokenDataAccess {
+    // Revoked token id -> when it expires (epoch millis)
+    private final Map<String, Long> revoked = new HashMap<>();
+    private long notBefore;
+
+    @Override
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        revoked.put(tokenId, expiresAt);
+    }
+
+    @Override
+    public synchronized boolean isRevoked(String tokenId, long issuedAt) {
+        return issuedAt < notBefore || revoked.containsKey(tokenId);
+    }
+
+    @Override
+    public synchronized void revokeAll(long notBefore) {
+        this.notBefore = Math.max(this.notBefore, notBefore);
+    }
+
+    @Override
+    public synchronized int deleteExpired(int limit) {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        for (var iterator = revoked.values().iterator(); iterator.hasNext() && deleted < limit; ) {
+            if (iterator.next() <= now) {
+                iterator.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
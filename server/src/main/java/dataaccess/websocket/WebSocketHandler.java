@@ -2,12 +2,14 @@ package dataaccess.websocket;
 
 import chess.ChessGame;
 import chess.ChessMove;
+import chess.PositionStatus;
 import com.google.gson.Gson;
 import io.javalin.Javalin;
 import io.javalin.websocket.WsMessageContext;
 import models.AuthData;
 import models.GameData;
 import org.eclipse.jetty.websocket.api.Session;
+import serialization.Serializer;
 import service.GameService;
 import service.UserService;
 import websocket.commands.UserGameCommand;
@@ -21,7 +23,7 @@ public class WebSocketHandler {
     private final GameService gameService;
     private final UserService userService;
     private final Map<Integer, Set<Session>> gameSessions = new ConcurrentHashMap<>();
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public WebSocketHandler(GameService gameService, UserService userService) {
         this.gameService = gameService;
@@ -105,9 +107,10 @@ public class WebSocketHandler {
         } else if (status == GameData.GameStatus.STALEMATE) {
             broadcastToAll(gameID, notification("Stalemate! The game is a draw."));
         } else {
-            // check state of next team
-            ChessGame.TeamColor toMove = chessGame.getTeamTurn();
-            if (chessGame.isInCheck(toMove)) {
+            // check state of next team; the status was already worked out (and cached) when the move was made
+            PositionStatus positionStatus = chessGame.getPositionStatus();
+            ChessGame.TeamColor toMove = positionStatus.teamToMove();
+            if (positionStatus.inCheck()) {
                 String userInCheck = toMove == ChessGame.TeamColor.WHITE
                         ? updatedGame.whiteUsername()
                         : updatedGame.blackUsername();
@@ -1,7 +1,14 @@
 package server;
+import dataaccess.AuthTokenSweeper;
+import dataaccess.CachingAuthDataAccess;
+import dataaccess.DatabaseManager;
 import dataaccess.SqlAuthDataAccess;
 import dataaccess.SqlGameDataAccess;
+import dataaccess.SqlRevokedTokenDataAccess;
+import dataaccess.SignedTokenAuthDataAccess;
 import dataaccess.SqlUserDataAccess;
+import dataaccess.TokenSigner;
+import dataaccess.interfaces.AuthDataAccess;
 import dataaccess.websocket.WebSocketHandler;
 import io.javalin.*;
 import server.handlers.ClearHandler;
@@ -11,18 +18,31 @@ import service.ClearService;
 import service.GameService;
 import service.UserService;
 
+import java.nio.charset.StandardCharsets;
+
 public class Server {
     private final Javalin javalin;
+    private final AuthTokenSweeper tokenSweeper;
     /**
      * Server constructor to set up the data access objects, endpoints, server, and websockethandler
      */
     public Server() {
         javalin = Javalin.create(config -> config.staticFiles.add("web"));
         SqlUserDataAccess userDAO = new SqlUserDataAccess();
-        SqlAuthDataAccess authDAO = new SqlAuthDataAccess();
         SqlGameDataAccess gameDAO = new SqlGameDataAccess();
 
-        UserService userService = new UserService(userDAO, authDAO);
+        // Signed tokens if a signing key is set, otherwise random tokens stored in the database.
+        // Either way logouts end up in the database, so a logout on one server is seen by the others once
+        // their short auth cache runs out. Every service shares the auth DAO, so a logout or clear through
+        // any of them is seen by all of them right away
+        TokenSigner tokenSigner = loadTokenSigner();
+        AuthDataAccess authDAO = new CachingAuthDataAccess(tokenSigner != null
+                ? new SignedTokenAuthDataAccess(tokenSigner, new SqlRevokedTokenDataAccess())
+                : new SqlAuthDataAccess());
+
+        tokenSweeper = new AuthTokenSweeper(authDAO);
+
+        UserService userService = new UserService(userDAO, authDAO, tokenSigner);
         GameService gameService = new GameService(gameDAO, authDAO);
         ClearService clearService = new ClearService(userDAO, gameDAO, authDAO);
 
@@ -40,6 +60,19 @@ public class Server {
         wsHandler.registerHandlers(javalin);
     }
 
+    /**
+     * Loads the auth token signing key from the CHESS_AUTH_KEY environment variable (or the chess.auth.key
+     * system property). Every server in a deployment needs the same key to accept each other's tokens.
+     * @return a signer for the key, or null if no key is set
+     */
+    private static TokenSigner loadTokenSigner() {
+        String key = System.getProperty("chess.auth.key", System.getenv("CHESS_AUTH_KEY"));
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        return new TokenSigner(key.getBytes(StandardCharsets.UTF_8), TokenSigner.DEFAULT_TTL_MILLIS);
+    }
+
     /**
      * Run function for the desired port for a javalin server
      * @param desiredPort an int for the desited port to run javalin on
@@ -47,6 +80,7 @@ public class Server {
      */
     public int run(int desiredPort) {
         javalin.start(desiredPort);
+        tokenSweeper.start();
         return javalin.port();
     }
 
@@ -54,6 +88,8 @@ public class Server {
      * Stop function to halt the javalin server
      */
     public void stop() {
+        tokenSweeper.stop();
         javalin.stop();
+        DatabaseManager.close();
     }
 }
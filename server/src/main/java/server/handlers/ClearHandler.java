@@ -2,13 +2,14 @@ package server.handlers;
 
 import com.google.gson.Gson;
 import io.javalin.http.Context;
+import serialization.Serializer;
 import service.ClearService;
 
 import java.util.Map;
 
 public class ClearHandler {
     private final ClearService service;
-    private final Gson serializer = new Gson();
+    private final Gson serializer = Serializer.GSON;
 
     /**
      * Handler to clear data
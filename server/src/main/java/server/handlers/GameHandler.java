@@ -4,6 +4,7 @@ import chess.ChessMove;
 import com.google.gson.Gson;
 import io.javalin.http.Context;
 import models.GameData;
+import serialization.Serializer;
 import server.ServerException;
 import service.GameService;
 
@@ -12,7 +13,7 @@ import java.util.Map;
 
 public class GameHandler {
     private final GameService service;
-    private final Gson serializer = new Gson();
+    private final Gson serializer = Serializer.GSON;
 
     public GameHandler(GameService service) {
         this.service = service;
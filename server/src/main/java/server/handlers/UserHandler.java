@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Context;
 import models.AuthData;
 import models.UserData;
+import serialization.Serializer;
 import server.ServerException;
 import service.UserService;
 
@@ -11,7 +12,7 @@ import java.util.Map;
 
 public class UserHandler {
     private final UserService service;
-    private final Gson serializer = new Gson();
+    private final Gson serializer = Serializer.GSON;
 
     public UserHandler(UserService service) {
         this.service = service;
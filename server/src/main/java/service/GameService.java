@@ -3,6 +3,7 @@ package service;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.InvalidMoveException;
+import chess.PositionStatus;
 import dataaccess.DataAccessException;
 import dataaccess.interfaces.AuthDataAccess;
 import dataaccess.interfaces.GameDataAccess;
@@ -232,12 +233,12 @@ public class GameService {
      *  resigned, or live
      */
     private static GameData.GameStatus calculateGameStatus(ChessGame game, GameData currentData) {
-        if (game.isInStalemate(ChessGame.TeamColor.WHITE) || game.isInStalemate(ChessGame.TeamColor.BLACK)) {
+        PositionStatus positionStatus = game.getPositionStatus();
+        if (positionStatus.stalemate()) {
             return GameData.GameStatus.STALEMATE;
         }
-        ChessGame.TeamColor currentTurn = game.getTeamTurn();
-        if (game.isInCheckmate(currentTurn)) {
-            return currentTurn == ChessGame.TeamColor.WHITE ?
+        if (positionStatus.checkmate()) {
+            return positionStatus.teamToMove() == ChessGame.TeamColor.WHITE ?
                     GameData.GameStatus.BLACK_WIN : GameData.GameStatus.WHITE_WIN;
         }
         if (currentData.status() == GameData.GameStatus.RESIGNED) {
@@ -1,6 +1,7 @@
 package service;
 
 import dataaccess.DataAccessException;
+import dataaccess.TokenSigner;
 import dataaccess.interfaces.AuthDataAccess;
 import dataaccess.interfaces.UserDataAccess;
 import models.AuthData;
@@ -11,10 +12,22 @@ import org.mindrot.jbcrypt.BCrypt;
 public class UserService {
     private final UserDataAccess userDAO;
     private final AuthDataAccess authDAO;
+    // Null unless the server hands out signed tokens
+    private final TokenSigner tokenSigner;
 
     public UserService(UserDataAccess userDAO, AuthDataAccess authDAO) {
+        this(userDAO, authDAO, null);
+    }
+
+    /**
+     * Makes a user service that issues signed tokens instead of random ones. The auth DAO should be a
+     * SignedTokenAuthDataAccess using the same signer.
+     * @param tokenSigner signs the tokens, or null for random tokens
+     */
+    public UserService(UserDataAccess userDAO, AuthDataAccess authDAO, TokenSigner tokenSigner) {
         this.userDAO = userDAO;
         this.authDAO = authDAO;
+        this.tokenSigner = tokenSigner;
     }
 
     public AuthData register (UserData userData) throws ServerException {
@@ -32,7 +45,7 @@ public class UserService {
             UserData hashedUser = new UserData(userData.username(), hashPW, userData.email());
 
             userDAO.addUser(hashedUser);
-            AuthData authData = new AuthData(generateToken(), hashedUser.username());
+            AuthData authData = new AuthData(generateToken(hashedUser.username()), hashedUser.username());
             authDAO.createAuthData(authData);
             return authData;
         } catch (DataAccessException e) {
@@ -52,7 +65,7 @@ public class UserService {
                 throw new ServerException("unauthorized", 401);
             }
 
-            AuthData authData = new AuthData(generateToken(), username);
+            AuthData authData = new AuthData(generateToken(username), username);
             authDAO.createAuthData(authData);
             return authData;
         } catch (DataAccessException e) {
@@ -74,7 +87,10 @@ public class UserService {
         }
     }
 
-    private String generateToken() {
+    private String generateToken(String username) {
+        if (tokenSigner != null) {
+            return tokenSigner.issue(username);
+        }
         return java.util.UUID.randomUUID().toString();
     }
 
@@ -0,0 +1,60 @@
+package dataaccess;
+
+import dataaccess.memorydao.MemoryAuthDataAccess;
+import models.AuthData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthTokenSweeperTests {
+
+    @Test @DisplayName("Idle tokens expire")
+    public void testIdleExpiry() throws DataAccessException, InterruptedException {
+        MemoryAuthDataAccess authDAO = new MemoryAuthDataAccess(20, 60_000);
+        authDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        assertEquals("bobby_tables", authDAO.getAuthData("token").username());
+
+        Thread.sleep(40);
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token"));
+    }
+
+    @Test @DisplayName("Tokens expire at their max lifetime even when used")
+    public void testMaxLifetime() throws DataAccessException, InterruptedException {
+        MemoryAuthDataAccess authDAO = new MemoryAuthDataAccess(60_000, 20);
+        authDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        authDAO.getAuthData("token");
+
+        Thread.sleep(40);
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token"));
+    }
+
+    @Test @DisplayName("Sweeping deletes only expired tokens, in batches")
+    public void testSweep() throws DataAccessException, InterruptedException {
+        MemoryAuthDataAccess authDAO = new MemoryAuthDataAccess(20, 60_000);
+        for (int i = 0; i < 7; i++) {
+            authDAO.createAuthData(new AuthData("old" + i, "bobby_tables"));
+        }
+        Thread.sleep(40);
+        authDAO.createAuthData(new AuthData("new", "bobby_tables"));
+
+        assertEquals(3, authDAO.deleteExpired(3));
+        assertEquals(4, new AuthTokenSweeper(authDAO, 3, 60_000).sweep());
+        assertEquals(0, authDAO.deleteExpired(3));
+        assertEquals("bobby_tables", authDAO.getAuthData("new").username());
+    }
+
+    @Test @DisplayName("Background sweeper runs")
+    public void testBackgroundSweep() throws DataAccessException, InterruptedException {
+        MemoryAuthDataAccess authDAO = new MemoryAuthDataAccess(1, 60_000);
+        authDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        AuthTokenSweeper sweeper = new AuthTokenSweeper(authDAO, 10, 5);
+        sweeper.start();
+        try {
+            Thread.sleep(100);
+        } finally {
+            sweeper.stop();
+        }
+        assertEquals(0, authDAO.deleteExpired(10));
+    }
+}
@@ -0,0 +1,111 @@
+package dataaccess;
+
+import dataaccess.memorydao.MemoryAuthDataAccess;
+import models.AuthData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingAuthDataAccessTests {
+
+    /**
+     * Memory auth DAO that counts how many lookups get past the cache
+     */
+    private static class CountingAuthDataAccess extends MemoryAuthDataAccess {
+        private int lookups;
+
+        @Override
+        public ExpiringAuthData getExpiringAuthData(String authData) throws DataAccessException {
+            lookups++;
+            return super.getExpiringAuthData(authData);
+        }
+    }
+
+    private CountingAuthDataAccess memoryDAO;
+    private CachingAuthDataAccess authDAO;
+
+    @BeforeEach
+    public void setup() {
+        memoryDAO = new CountingAuthDataAccess();
+        authDAO = new CachingAuthDataAccess(memoryDAO, 3, 60_000);
+    }
+
+    @Test @DisplayName("Created tokens are read from the cache")
+    public void testCachedLookup() throws DataAccessException {
+        AuthData auth = new AuthData("token", "bobby_tables");
+        authDAO.createAuthData(auth);
+
+        assertEquals(auth, authDAO.getAuthData("token"));
+        assertEquals(auth, authDAO.getAuthData("token"));
+        assertEquals(0, memoryDAO.lookups);
+    }
+
+    @Test @DisplayName("Tokens are read through once")
+    public void testReadThrough() throws DataAccessException {
+        memoryDAO.createAuthData(new AuthData("token", "bobby_tables"));
+
+        assertEquals("bobby_tables", authDAO.getAuthData("token").username());
+        assertEquals("bobby_tables", authDAO.getAuthData("token").username());
+        assertEquals(1, memoryDAO.lookups);
+    }
+
+    @Test @DisplayName("Logout invalidates the token")
+    public void testDeleteInvalidates() throws DataAccessException {
+        authDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        authDAO.deleteAuthData("token");
+
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token"));
+        assertThrows(DataAccessException.class, () -> authDAO.deleteAuthData("token"));
+    }
+
+    @Test @DisplayName("Clear invalidates every token")
+    public void testClearInvalidates() throws DataAccessException {
+        authDAO.createAuthData(new AuthData("token1", "bobby_tables"));
+        authDAO.createAuthData(new AuthData("token2", "xkcd"));
+        authDAO.clear();
+
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token1"));
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token2"));
+    }
+
+    @Test @DisplayName("Unknown tokens aren't cached")
+    public void testUnknownToken() {
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("nope"));
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("nope"));
+        assertEquals(2, memoryDAO.lookups);
+    }
+
+    @Test @DisplayName("Cache evicts past its size")
+    public void testEviction() throws DataAccessException {
+        for (int i = 0; i < 5; i++) {
+            authDAO.createAuthData(new AuthData("token" + i, "user" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals("user" + i, authDAO.getAuthData("token" + i).username());
+        }
+        assertTrue(memoryDAO.lookups > 0);
+    }
+
+    @Test @DisplayName("Cached tokens expire")
+    public void testExpiry() throws DataAccessException, InterruptedException {
+        authDAO = new CachingAuthDataAccess(memoryDAO, 3, 1);
+        authDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        Thread.sleep(10);
+
+        authDAO.getAuthData("token");
+        assertEquals(1, memoryDAO.lookups);
+    }
+
+    @Test @DisplayName("Tokens aren't cached past their own expiry")
+    public void testTokenExpiry() throws DataAccessException, InterruptedException {
+        MemoryAuthDataAccess shortDAO = new MemoryAuthDataAccess(20, 60_000);
+        authDAO = new CachingAuthDataAccess(shortDAO, 3, 60_000);
+        shortDAO.createAuthData(new AuthData("token", "bobby_tables"));
+        assertEquals("bobby_tables", authDAO.getAuthData("token").username());
+
+        Thread.sleep(40);
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData("token"));
+    }
+}
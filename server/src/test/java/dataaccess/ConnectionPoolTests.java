@@ -0,0 +1,177 @@
+package dataaccess;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTests {
+
+    /**
+     * A stand-in for a physical connection that just remembers whether it was closed
+     */
+    private static class FakeConnection {
+        private boolean closed;
+        private boolean valid = true;
+        private int prepared;
+        private final Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                        switch (method.getName()) {
+                            case "close" -> {
+                                closed = true;
+                                yield null;
+                            }
+                            case "isClosed" -> closed;
+                            case "isValid" -> valid;
+                            case "getAutoCommit" -> true;
+                            case "prepareStatement" -> {
+                                prepared++;
+                                yield fakeStatement();
+                            }
+                            default -> null;
+                        });
+    }
+
+    private static PreparedStatement fakeStatement() {
+        boolean[] closed = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) ->
+                        switch (method.getName()) {
+                            case "close" -> {
+                                closed[0] = true;
+                                yield null;
+                            }
+                            case "isClosed" -> closed[0];
+                            default -> null;
+                        });
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private ConnectionPool makePool(int size, long maxLifetimeMillis) {
+        return new ConnectionPool(() -> {
+            FakeConnection fake = new FakeConnection();
+            opened.add(fake);
+            return fake.connection;
+        }, size, 50, maxLifetimeMillis, 0, 2);
+    }
+
+    @Test @DisplayName("Closed connections are reused")
+    public void testReuse() throws SQLException {
+        ConnectionPool pool = makePool(2, 60_000);
+        for (int i = 0; i < 5; i++) {
+            try (Connection connection = pool.borrow()) {
+                assertFalse(connection.isClosed());
+            }
+        }
+        assertEquals(1, opened.size());
+        assertFalse(opened.getFirst().closed);
+        assertEquals(5, pool.getStats().borrows());
+        assertEquals(0, pool.getStats().active());
+    }
+
+    @Test @DisplayName("Borrowing from a full pool times out")
+    public void testBounded() throws SQLException {
+        ConnectionPool pool = makePool(2, 60_000);
+        Connection first = pool.borrow();
+        pool.borrow();
+
+        assertThrows(SQLTimeoutException.class, pool::borrow);
+        assertEquals(1, pool.getStats().timeouts());
+        assertEquals(2, opened.size());
+
+        first.close();
+        assertNotNull(pool.borrow());
+        assertEquals(2, opened.size());
+    }
+
+    @Test @DisplayName("A closed handle can't be used again")
+    public void testHandleClosed() throws SQLException {
+        ConnectionPool pool = makePool(1, 60_000);
+        Connection connection = pool.borrow();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+        assertEquals(0, pool.getStats().active());
+        assertEquals(1, pool.getStats().total());
+    }
+
+    @Test @DisplayName("Old connections are replaced")
+    public void testMaxLifetime() throws SQLException {
+        ConnectionPool pool = makePool(1, 0);
+        pool.borrow().close();
+        pool.borrow().close();
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.getFirst().closed);
+    }
+
+    @Test @DisplayName("Pool close closes idle connections")
+    public void testClose() throws SQLException {
+        ConnectionPool pool = makePool(1, 60_000);
+        pool.borrow().close();
+        pool.close();
+
+        assertTrue(opened.getFirst().closed);
+        assertThrows(SQLException.class, pool::borrow);
+    }
+
+    @Test @DisplayName("Statements are reused across borrows")
+    public void testStatementCache() throws SQLException {
+        ConnectionPool pool = makePool(1, 60_000);
+        for (int i = 0; i < 3; i++) {
+            try (var connection = pool.borrow();
+                 var statement = connection.prepareStatement("SELECT * FROM AuthData WHERE authToken = ?")) {
+                assertFalse(statement.isClosed());
+            }
+        }
+        assertEquals(1, opened.getFirst().prepared);
+        assertEquals(2, pool.getStats().statementHits());
+        assertEquals(1, pool.getStats().statementMisses());
+    }
+
+    @Test @DisplayName("Statement cache evicts and handles duplicates")
+    public void testStatementCacheLimits() throws SQLException {
+        ConnectionPool pool = makePool(1, 60_000);
+        try (var connection = pool.borrow()) {
+            PreparedStatement first = connection.prepareStatement("SELECT 1");
+            PreparedStatement duplicate = connection.prepareStatement("SELECT 1");
+            assertNotSame(first, duplicate);
+            duplicate.close();
+            first.close();
+            assertTrue(first.isClosed());
+
+            // The cache holds 2, so the third statement pushes "SELECT 1" out
+            connection.prepareStatement("SELECT 2").close();
+            connection.prepareStatement("SELECT 3").close();
+            connection.prepareStatement("SELECT 1").close();
+        }
+        assertEquals(5, opened.getFirst().prepared);
+        assertEquals(0, pool.getStats().statementHits());
+    }
+
+    @Test @DisplayName("Statements left open are closed with the connection")
+    public void testStatementClosedOnRelease() throws SQLException {
+        ConnectionPool pool = makePool(1, 60_000);
+        Connection connection = pool.borrow();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1");
+        connection.close();
+
+        assertTrue(statement.isClosed());
+        assertThrows(SQLException.class, statement::executeQuery);
+        try (var next = pool.borrow(); var reused = next.prepareStatement("SELECT 1")) {
+            assertFalse(reused.isClosed());
+        }
+        assertEquals(1, pool.getStats().statementHits());
+    }
+}
@@ -0,0 +1,117 @@
+package dataaccess;
+
+import dataaccess.memorydao.MemoryRevokedTokenDataAccess;
+import dataaccess.memorydao.MemoryUserDataAccess;
+import models.AuthData;
+import models.UserData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import server.ServerException;
+import service.UserService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignedTokenAuthDataAccessTests {
+    private static final byte[] KEY = "an example key that is at least 32 bytes".getBytes(StandardCharsets.UTF_8);
+
+    private TokenSigner signer;
+    private MemoryRevokedTokenDataAccess revokedDAO;
+    private SignedTokenAuthDataAccess authDAO;
+
+    @BeforeEach
+    public void setup() {
+        signer = new TokenSigner(KEY, 60_000);
+        revokedDAO = new MemoryRevokedTokenDataAccess();
+        authDAO = new SignedTokenAuthDataAccess(signer, revokedDAO);
+    }
+
+    @Test @DisplayName("Signed token is accepted")
+    public void testValidToken() throws DataAccessException {
+        String token = signer.issue("bobby.tables");
+
+        assertEquals(new AuthData(token, "bobby.tables"), authDAO.getAuthData(token));
+        assertNotEquals(token, signer.issue("bobby.tables"));
+    }
+
+    @Test @DisplayName("Tampered, foreign and malformed tokens are rejected")
+    public void testBadTokens() {
+        String token = signer.issue("bobby_tables");
+        String[] parts = token.split("\\.");
+        String otherUser = token.replace(parts[0], "eGtjZA");
+        String foreign = new TokenSigner("a different key that is also 32+ bytes".getBytes(StandardCharsets.UTF_8),
+                60_000).issue("bobby_tables");
+
+        for (String bad : new String[]{otherUser, foreign, token + "x", "not-a-token", "a.b.c.d.e", null}) {
+            assertThrows(DataAccessException.class, () -> authDAO.getAuthData(bad));
+        }
+    }
+
+    @Test @DisplayName("Expired token is rejected")
+    public void testExpiredToken() {
+        String token = new TokenSigner(KEY, 0).issue("bobby_tables");
+
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData(token));
+    }
+
+    @Test @DisplayName("Logout revokes the token")
+    public void testLogout() throws DataAccessException {
+        String token = signer.issue("bobby_tables");
+        String other = signer.issue("bobby_tables");
+        authDAO.deleteAuthData(token);
+
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData(token));
+        assertThrows(DataAccessException.class, () -> authDAO.deleteAuthData(token));
+        assertEquals("bobby_tables", authDAO.getAuthData(other).username());
+    }
+
+    @Test @DisplayName("Clear revokes earlier tokens")
+    public void testClear() throws DataAccessException, InterruptedException {
+        String token = signer.issue("bobby_tables");
+        Thread.sleep(2);
+        authDAO.clear();
+
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData(token));
+    }
+
+    @Test @DisplayName("Logout and clear apply to every server sharing the revocation store")
+    public void testSharedRevocations() throws DataAccessException, InterruptedException {
+        SignedTokenAuthDataAccess otherServer = new SignedTokenAuthDataAccess(signer, revokedDAO);
+        String token = signer.issue("bobby_tables");
+        String other = signer.issue("bobby_tables");
+        authDAO.deleteAuthData(token);
+
+        assertThrows(DataAccessException.class, () -> otherServer.getAuthData(token));
+        assertEquals("bobby_tables", otherServer.getAuthData(other).username());
+
+        Thread.sleep(2);
+        otherServer.clear();
+        assertThrows(DataAccessException.class, () -> authDAO.getAuthData(other));
+        assertThrows(IllegalArgumentException.class, () -> new SignedTokenAuthDataAccess(signer, null));
+    }
+
+    @Test @DisplayName("Expired revocations are swept")
+    public void testSweepRevocations() throws DataAccessException, InterruptedException {
+        TokenSigner shortSigner = new TokenSigner(KEY, 20);
+        SignedTokenAuthDataAccess shortDAO = new SignedTokenAuthDataAccess(shortSigner, revokedDAO);
+        shortDAO.deleteAuthData(shortSigner.issue("bobby_tables"));
+        authDAO.deleteAuthData(signer.issue("bobby_tables"));
+
+        Thread.sleep(40);
+        assertEquals(1, authDAO.deleteExpired(10));
+        assertEquals(0, authDAO.deleteExpired(10));
+    }
+
+    @Test @DisplayName("User service issues signed tokens")
+    public void testUserService() throws ServerException, DataAccessException {
+        UserService service = new UserService(new MemoryUserDataAccess(), authDAO, signer);
+        AuthData auth = service.register(new UserData("bobby_tables", "xkcd", "mail@mail.com"));
+
+        assertEquals("bobby_tables", service.getAuthDataFromToken(auth.authToken()).username());
+        service.logout(auth.authToken());
+        ServerException e = assertThrows(ServerException.class, () -> service.logout(auth.authToken()));
+        assertEquals(401, e.getStatusCode());
+    }
+}
@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * BinaryGame reads and writes a compact binary form of a game, for storing games in the database.
+ * The layout is:
+ * <ul>
+ *     <li>1 byte: format version (FORMAT_VERSION)</li>
+ *     <li>8 bytes: occupancy bitboard, big-endian</li>
+ *     <li>one 4-bit bitboard index per occupied square, lowest square first, two to a byte (low half first)</li>
+ *     <li>1 byte: bit 0 is set if black is to move, bits 1-4 are the castling rights</li>
+ *     <li>1 byte: en passant square, or 0xFF if there isn't one</li>
+ *     <li>2 bytes each: halfmove clock and fullmove number, unsigned big-endian (capped at 65535)</li>
+ * </ul>
+ * The starting position is 31 bytes, and a position with fewer pieces is smaller.
+ * Decoding places pieces straight from the occupancy bits, so there's no text to parse.
+ */
+final class BinaryGame {
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 9;
+    private static final int TRAILER_SIZE = 6;
+    private static final int MAX_COUNTER = 0xFFFF;
+
+    private BinaryGame() {
+    }
+
+    /**
+     * Writes a game in the binary form.
+     * @param game is the game to write
+     * @return the encoded bytes
+     */
+    static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long occupancy = board.getOccupancy();
+        int pieceCount = Long.bitCount(occupancy);
+        int pieceBytes = (pieceCount + 1) / 2;
+        byte[] bytes = new byte[HEADER_SIZE + pieceBytes + TRAILER_SIZE];
+
+        bytes[0] = FORMAT_VERSION;
+        for (int i = 0; i < 8; i++) {
+            bytes[1 + i] = (byte) (occupancy >>> (56 - 8 * i));
+        }
+
+        int piece = 0;
+        for (long remaining = occupancy; remaining != 0; remaining &= remaining - 1) {
+            int bitboardIndex = board.getBitboardIndex(Long.numberOfTrailingZeros(remaining));
+            bytes[HEADER_SIZE + piece / 2] |= (byte) (bitboardIndex << (4 * (piece % 2)));
+            piece++;
+        }
+
+        int position = HEADER_SIZE + pieceBytes;
+        int blackToMove = game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0;
+        bytes[position++] = (byte) (blackToMove | (board.getCastlingRights() << 1));
+        bytes[position++] = (byte) board.getEnPassant();
+        position = writeCounter(bytes, position, game.getHalfmoveClock());
+        writeCounter(bytes, position, game.getFullmoveNumber());
+        return bytes;
+    }
+
+    /**
+     * Builds a game from the binary form.
+     * @param bytes is the encoded game
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the bytes aren't a valid encoded game
+     */
+    static ChessGame decode(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE + TRAILER_SIZE || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not an encoded game");
+        }
+        long occupancy = 0L;
+        for (int i = 0; i < 8; i++) {
+            occupancy = (occupancy << 8) | (bytes[1 + i] & 0xFF);
+        }
+        int pieceCount = Long.bitCount(occupancy);
+        int pieceBytes = (pieceCount + 1) / 2;
+        if (bytes.length != HEADER_SIZE + pieceBytes + TRAILER_SIZE) {
+            throw new IllegalArgumentException("Encoded game has the wrong length");
+        }
+
+        ChessBoard board = new ChessBoard();
+        int piece = 0;
+        for (long remaining = occupancy; remaining != 0; remaining &= remaining - 1) {
+            int bitboardIndex = (bytes[HEADER_SIZE + piece / 2] >>> (4 * (piece % 2))) & 0xF;
+            if (bitboardIndex > ChessBoard.BLACK_KINGS) {
+                throw new IllegalArgumentException("Invalid piece in encoded game");
+            }
+            board.placePiece(bitboardIndex, Long.numberOfTrailingZeros(remaining));
+            piece++;
+        }
+
+        int position = HEADER_SIZE + pieceBytes;
+        int flags = bytes[position++] & 0xFF;
+        board.setCastlingRights(flags >>> 1);
+        int enPassant = bytes[position++];
+        if (enPassant < -1 || enPassant > 63) {
+            throw new IllegalArgumentException("Invalid en passant square in encoded game");
+        }
+        board.setEnPassant(enPassant);
+
+        ChessGame game = new ChessGame(board, (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setMoveCounters(readCounter(bytes, position), readCounter(bytes, position + 2));
+        return game;
+    }
+
+    private static int writeCounter(byte[] bytes, int position, int counter) {
+        int value = Math.min(Math.max(counter, 0), MAX_COUNTER);
+        bytes[position] = (byte) (value >>> 8);
+        bytes[position + 1] = (byte) value;
+        return position + 2;
+    }
+
+    private static int readCounter(byte[] bytes, int position) {
+        return ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+    }
+}
@@ -1,5 +1,11 @@
 package chess;
 
+import chess.movecalculator.LeaperAttacks;
+import chess.movecalculator.PackedMove;
+import chess.movecalculator.SlidingAttacks;
+
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 import java.util.Objects;
 
@@ -9,6 +15,7 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
     // Make constants for each piece's bitboard index
     static final int WHITE_PAWNS = 0;
@@ -23,6 +30,38 @@ public class ChessBoard {
     static final int BLACK_BISHOPS = 9;
     static final int BLACK_QUEENS = 10;
     static final int BLACK_KINGS = 11;
+    // Mailbox value for a square with no piece on it
+    static final byte EMPTY = -1;
+    // Starting size of the undo stack; it grows if a line ever gets deeper than this
+    private static final int UNDO_CAPACITY = 256;
+    // Castling rights bits, the same four rights a FEN string lists (KQkq)
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+    /** Which castling rights survive a move touching each square. Moving a king or rook off its starting square
+     * (or capturing a rook on one) loses the matching rights; every other square keeps them all.
+     */
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    /** One shared ChessPiece per bitboard index. ChessPiece is immutable, so getPiece can hand these out
+     * instead of allocating a new piece on every lookup.
+     */
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (int i = WHITE_PAWNS; i <= BLACK_KINGS; i++) {
+            PIECES[i] = findPieceByIndex(i);
+        }
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[0] = ALL_CASTLING & ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[4] = ALL_CASTLING & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[7] = ALL_CASTLING & ~WHITE_KINGSIDE;
+        CASTLING_MASKS[56] = ALL_CASTLING & ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[60] = ALL_CASTLING & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[63] = ALL_CASTLING & ~BLACK_KINGSIDE;
+    }
 
     /** Create each bitboard as our board representation.
      * Every time we want to access a certain bitboard, we use the bitboard index for that piece.
@@ -31,9 +70,38 @@ public class ChessBoard {
      */
     private long[] bitboards = new long[12];
     private int enPassant;
+    /** The engine doesn't castle yet, but the rights are tracked so FEN import/export keeps them.
+     * A right only counts while its king and rook are still on their starting squares (see getCastlingRights),
+     * so a new board starts with every right and a board set up piece by piece gets whichever ones fit.
+     */
+    private int castlingRights = ALL_CASTLING;
+
+    /** Occupancy bitboards for each team and the whole board, kept in step with the piece bitboards.
+     * The mailbox is the same board the other way around: one entry per square holding that square's bitboard
+     * index (or EMPTY), so finding the piece on a square is a single array read.
+     * These are derived data, so they're transient and never serialized (ChessBoardAdapter writes FEN).
+     * The constructor leaves derivedSynced false and the first read afterwards rebuilds these from the bitboards,
+     * so a board whose bitboards were filled in some other way (like reflection) still ends up consistent.
+     */
+    private transient long whiteOccupancy;
+    private transient long blackOccupancy;
+    private transient long occupancy;
+    private transient byte[] mailbox = new byte[64];
+    private transient boolean derivedSynced;
+    // Zobrist key of the pieces, castling rights and en passant square, updated along with the occupancy bitboards
+    private transient long zobristKey;
+    // The castling rights that currently count, which are the ones folded into zobristKey
+    private transient int activeCastlingRights;
+
+    /** Undo records for doMove/undoMove, one int per move made. Each record packs the captured piece's
+     * bitboard index into bits 0-3 (all ones for no capture), the previous en passant square + 1 into bits 4-10,
+     * and the previous castling rights into bits 11-14.
+     * The stack is preallocated so making and unmaking moves doesn't allocate anything.
+     */
+    private transient int[] undoStack = new int[UNDO_CAPACITY];
+    private transient int undoSize;
 
     public ChessBoard() {
-        emptyBoard();
         enPassant = -1;
     }
 
@@ -47,7 +115,12 @@ public class ChessBoard {
         int pieceIndex = position.getIndex();
         int boardIndex = findIndexByPiece(piece);
         if (boardIndex != -1) {
-            bitboards[boardIndex] |= 1L << pieceIndex;
+            // A square only holds one piece, so whatever was there before gets replaced
+            byte occupant = getBitboardIndex(pieceIndex);
+            if (occupant != EMPTY) {
+                removePiece(occupant, pieceIndex);
+            }
+            placePiece(boardIndex, pieceIndex);
         }
         else {
             System.out.println("Invalid piece attempted to be added");
@@ -63,8 +136,18 @@ public class ChessBoard {
         if (piece == null) {
             return -1;
         }
-        int teamModifier = (piece.getTeamColor() == ChessGame.TeamColor.WHITE) ? 0 : 6;
-        return switch (piece.getPieceType()) {
+        return bitboardIndexOf(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    /**
+     * bitboardIndexOf finds the bitboard index for a team and piece type.
+     * @param color is the team of the piece
+     * @param type is the type of the piece
+     * @return whichever index corresponds to the correct bitboard in array bitboards, or -1 for a null type
+     */
+    static int bitboardIndexOf(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        int teamModifier = (color == ChessGame.TeamColor.WHITE) ? 0 : 6;
+        return switch (type) {
             case PAWN -> teamModifier;
             case ROOK -> 1 + teamModifier;
             case KNIGHT -> 2 + teamModifier;
@@ -83,14 +166,7 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-
-        int index = position.getIndex();
-        for (int i = WHITE_PAWNS; i <= BLACK_KINGS; i++) {
-            if (((bitboards[i] >> index) & 1L) == 1) {
-                return findPieceByIndex(i);
-            }
-        }
-        return null;
+        return getPiece(position.getIndex());
     }
 
     /**
@@ -101,13 +177,18 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(int index) {
+        byte bitboardIndex = getBitboardIndex(index);
+        return bitboardIndex == EMPTY ? null : PIECES[bitboardIndex];
+    }
 
-        for (int i = WHITE_PAWNS; i <= BLACK_KINGS; i++) {
-            if (((bitboards[i] >> index) & 1L) == 1) {
-                return findPieceByIndex(i);
-            }
-        }
-        return null;
+    /**
+     * Looks up which bitboard has a piece on the given square using the mailbox.
+     * @param index is the square (0-63) to look at
+     * @return the bitboard index of the piece on that square, or EMPTY if there isn't one
+     */
+    byte getBitboardIndex(int index) {
+        syncDerivedState();
+        return mailbox[index];
     }
 
     /**
@@ -115,17 +196,17 @@ public class ChessBoard {
      * @param bitboardIndex is the index of the bitboard stored in array bitboards.
      * @return the appropriate ChessPiece indicated by the index.
      */
-    private ChessPiece findPieceByIndex(int bitboardIndex) {
+    private static ChessPiece findPieceByIndex(int bitboardIndex) {
         ChessGame.TeamColor color = (bitboardIndex < 6) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
         int pieceIndex = bitboardIndex % 6;
 
         return switch (pieceIndex) {
-            case 0 -> new ChessPiece(color, ChessPiece.PieceType.PAWN);
-            case 1 -> new ChessPiece(color, ChessPiece.PieceType.ROOK);
-            case 2 -> new ChessPiece(color, ChessPiece.PieceType.KNIGHT);
-            case 3 -> new ChessPiece(color, ChessPiece.PieceType.BISHOP);
-            case 4 -> new ChessPiece(color, ChessPiece.PieceType.QUEEN);
-            case 5 -> new ChessPiece(color, ChessPiece.PieceType.KING);
+            case 0 -> ChessPiece.of(color, ChessPiece.PieceType.PAWN);
+            case 1 -> ChessPiece.of(color, ChessPiece.PieceType.ROOK);
+            case 2 -> ChessPiece.of(color, ChessPiece.PieceType.KNIGHT);
+            case 3 -> ChessPiece.of(color, ChessPiece.PieceType.BISHOP);
+            case 4 -> ChessPiece.of(color, ChessPiece.PieceType.QUEEN);
+            case 5 -> ChessPiece.of(color, ChessPiece.PieceType.KING);
             default -> null;
         };
     }
@@ -136,6 +217,7 @@ public class ChessBoard {
      */
     public void resetBoard() {
         emptyBoard();
+        setCastlingRights(ALL_CASTLING);
         setBackRow(ChessGame.TeamColor.BLACK);
         setBackRow(ChessGame.TeamColor.WHITE);
         setPawnRow(ChessGame.TeamColor.BLACK);
@@ -148,6 +230,279 @@ public class ChessBoard {
      */
     public void emptyBoard() {
         Arrays.fill(bitboards, 0L);
+        whiteOccupancy = 0L;
+        blackOccupancy = 0L;
+        occupancy = 0L;
+        Arrays.fill(mailbox, EMPTY);
+        // No kings or rooks left means no castling rights count, but the en passant square stays
+        activeCastlingRights = 0;
+        zobristKey = Zobrist.enPassantKey(enPassant);
+        derivedSynced = true;
+        undoSize = 0;
+    }
+
+    /**
+     * Sets a square on one of the piece bitboards and updates the occupancy bitboards and mailbox to match.
+     * The square should already be empty.
+     * @param bitboardIndex is the index of the piece's bitboard (WHITE_PAWNS through BLACK_KINGS)
+     * @param index is the square (0-63) to place the piece on
+     */
+    void placePiece(int bitboardIndex, int index) {
+        syncDerivedState();
+        long bit = 1L << index;
+        bitboards[bitboardIndex] |= bit;
+        if (bitboardIndex <= WHITE_KINGS) {
+            whiteOccupancy |= bit;
+        }
+        else {
+            blackOccupancy |= bit;
+        }
+        occupancy |= bit;
+        mailbox[index] = (byte) bitboardIndex;
+        zobristKey ^= Zobrist.pieceKey(bitboardIndex, index);
+        if (CASTLING_MASKS[index] != ALL_CASTLING) {
+            updateCastlingKey();
+        }
+    }
+
+    /**
+     * Clears a square on one of the piece bitboards and updates the occupancy bitboards and mailbox to match.
+     * @param bitboardIndex is the index of the piece's bitboard (WHITE_PAWNS through BLACK_KINGS)
+     * @param index is the square (0-63) to remove the piece from
+     */
+    void removePiece(int bitboardIndex, int index) {
+        syncDerivedState();
+        long bit = 1L << index;
+        bitboards[bitboardIndex] &= ~bit;
+        if (bitboardIndex <= WHITE_KINGS) {
+            whiteOccupancy &= ~bit;
+        }
+        else {
+            blackOccupancy &= ~bit;
+        }
+        occupancy = whiteOccupancy | blackOccupancy;
+        mailbox[index] = EMPTY;
+        zobristKey ^= Zobrist.pieceKey(bitboardIndex, index);
+        if (CASTLING_MASKS[index] != ALL_CASTLING) {
+            updateCastlingKey();
+        }
+    }
+
+    /**
+     * Makes a move in place and pushes an undo record so undoMove can take it back.
+     * The move isn't checked for legality; its start square just has to hold a piece.
+     * @param move is the packed move to make
+     */
+    public void doMove(int move) {
+        syncDerivedState();
+        int startIndex = PackedMove.start(move);
+        int endIndex = PackedMove.end(move);
+        byte piece = mailbox[startIndex];
+        byte captured = mailbox[endIndex];
+
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+        }
+        undoStack[undoSize++] = (captured & 0xF) | ((enPassant + 1) << 4) | (castlingRights << 11);
+
+        if (captured != EMPTY) {
+            removePiece(captured, endIndex);
+        }
+        removePiece(piece, startIndex);
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion == null) {
+            placePiece(piece, endIndex);
+        }
+        else {
+            // The promoted piece joins the same team as the pawn
+            ChessGame.TeamColor color = piece <= WHITE_KINGS ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+            placePiece(bitboardIndexOf(color, promotion), endIndex);
+        }
+
+        // A pawn that moves two squares leaves the square it skipped open to en passant
+        boolean doublePush = (piece == WHITE_PAWNS || piece == BLACK_PAWNS) && Math.abs(endIndex - startIndex) == 16;
+        setState(doublePush ? (startIndex + endIndex) / 2 : -1,
+                castlingRights & CASTLING_MASKS[startIndex] & CASTLING_MASKS[endIndex]);
+    }
+
+    /**
+     * Takes back the last move made with doMove, restoring any captured piece and the en passant square.
+     * @param move is the same packed move that was passed to doMove
+     * @throws IllegalStateException if there's no move to take back
+     */
+    public void undoMove(int move) {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int startIndex = PackedMove.start(move);
+        int endIndex = PackedMove.end(move);
+        int record = undoStack[--undoSize];
+
+        byte placed = mailbox[endIndex];
+        removePiece(placed, endIndex);
+        if (PackedMove.promotion(move) == null) {
+            placePiece(placed, startIndex);
+        }
+        else {
+            placePiece(placed <= WHITE_KINGS ? WHITE_PAWNS : BLACK_PAWNS, startIndex);
+        }
+
+        int captured = record & 0xF;
+        if (captured != (EMPTY & 0xF)) {
+            placePiece(captured, endIndex);
+        }
+        setState(((record >>> 4) & 0x7F) - 1, record >>> 11);
+    }
+
+    /**
+     * Drops the undo records for every move made so far, so they can't be taken back. ChessGame calls this once
+     * a move is accepted, since a played move is history rather than part of a search, and so the stack doesn't
+     * grow by one record for every move in the game.
+     */
+    void clearUndoHistory() {
+        undoSize = 0;
+    }
+
+    /**
+     * Sets the en passant square and castling rights, swapping their keys in the Zobrist key.
+     * The derived state has to be synced already.
+     */
+    private void setState(int newEnPassant, int newCastlingRights) {
+        zobristKey ^= Zobrist.enPassantKey(enPassant) ^ Zobrist.enPassantKey(newEnPassant);
+        enPassant = newEnPassant;
+        castlingRights = newCastlingRights;
+        updateCastlingKey();
+    }
+
+    /**
+     * Swaps the key for the castling rights that counted before for the ones that count now, after the rights
+     * or a piece on a king or rook starting square changed.
+     */
+    private void updateCastlingKey() {
+        int active = castlingRights & placedCastlingRights();
+        zobristKey ^= Zobrist.castlingKey(activeCastlingRights) ^ Zobrist.castlingKey(active);
+        activeCastlingRights = active;
+    }
+
+    /**
+     * @return the castling rights whose king and rook are on their starting squares
+     */
+    private int placedCastlingRights() {
+        long whiteRooks = bitboards[WHITE_ROOKS];
+        long blackRooks = bitboards[BLACK_ROOKS];
+        int rights = 0;
+        if ((bitboards[WHITE_KINGS] & (1L << 4)) != 0) {
+            rights |= ((whiteRooks & (1L << 7)) != 0 ? WHITE_KINGSIDE : 0)
+                    | ((whiteRooks & 1L) != 0 ? WHITE_QUEENSIDE : 0);
+        }
+        if ((bitboards[BLACK_KINGS] & (1L << 60)) != 0) {
+            rights |= ((blackRooks & (1L << 63)) != 0 ? BLACK_KINGSIDE : 0)
+                    | ((blackRooks & (1L << 56)) != 0 ? BLACK_QUEENSIDE : 0);
+        }
+        return rights;
+    }
+
+    /**
+     * Rebuilds the occupancy bitboards and mailbox from the piece bitboards if they haven't been built yet
+     * (a fresh or freshly deserialized board). After that they're updated incrementally.
+     */
+    private void syncDerivedState() {
+        if (derivedSynced) {
+            return;
+        }
+        whiteOccupancy = 0L;
+        blackOccupancy = 0L;
+        for (int i = WHITE_PAWNS; i <= WHITE_KINGS; i++) {
+            whiteOccupancy |= bitboards[i];
+            blackOccupancy |= bitboards[i + BLACK_PAWNS];
+        }
+        occupancy = whiteOccupancy | blackOccupancy;
+
+        Arrays.fill(mailbox, EMPTY);
+        zobristKey = 0L;
+        for (int i = WHITE_PAWNS; i <= BLACK_KINGS; i++) {
+            long bitboard = bitboards[i];
+            while (bitboard != 0) {
+                int square = Long.numberOfTrailingZeros(bitboard);
+                mailbox[square] = (byte) i;
+                zobristKey ^= Zobrist.pieceKey(i, square);
+                bitboard &= bitboard - 1;
+            }
+        }
+        activeCastlingRights = castlingRights & placedCastlingRights();
+        zobristKey ^= Zobrist.castlingKey(activeCastlingRights) ^ Zobrist.enPassantKey(enPassant);
+        derivedSynced = true;
+    }
+
+    /**
+     * Gets every occupied square on the board
+     * @return a bitboard with a 1 on every square that holds a piece
+     */
+    public long getOccupancy() {
+        syncDerivedState();
+        return occupancy;
+    }
+
+    /**
+     * Gets the Zobrist key of the board: its pieces, castling rights and en passant square. It's kept up to date
+     * as pieces are added, moved and removed, so reading it is free. Equal boards have the same key.
+     * The key doesn't include whose turn it is; ChessGame.getZobristKey adds that.
+     * @return the 64-bit Zobrist key for this board
+     */
+    public long getZobristKey() {
+        syncDerivedState();
+        return zobristKey;
+    }
+
+    /**
+     * Gets every square held by one team
+     * @param color is the team we want the occupancy of
+     * @return a bitboard with a 1 on every square that team's pieces are on
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        syncDerivedState();
+        return color == ChessGame.TeamColor.WHITE ? whiteOccupancy : blackOccupancy;
+    }
+
+    /**
+     * Checks whether any piece of the given team attacks a square.
+     * Instead of generating that team's moves, this looks outward from the square: a pawn, knight or king
+     * attack from here that lands on the same kind of enemy piece means that piece attacks us back, and the
+     * same goes for rook and bishop rays hitting rooks, bishops or queens.
+     * @param square is the square (0-63) to check
+     * @param byColor is the team doing the attacking
+     * @return true if at least one of byColor's pieces attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        syncDerivedState();
+        return isSquareAttacked(square, byColor, occupancy);
+    }
+
+    /**
+     * Same as isSquareAttacked(square, byColor), but rook and bishop rays are traced through the given occupancy
+     * instead of the board's. The legal move generator uses this with the king taken off the board, so a king
+     * can't step backwards along the line of a slider that's checking it.
+     * @param square is the square (0-63) to check
+     * @param byColor is the team doing the attacking
+     * @param occupancy is the bitboard of squares that block rays
+     * @return true if at least one of byColor's pieces attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor, long occupancy) {
+        int teamModifier = (byColor == ChessGame.TeamColor.WHITE) ? 0 : 6;
+        ChessGame.TeamColor defender = (byColor == ChessGame.TeamColor.WHITE) ?
+                ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+
+        if ((LeaperAttacks.pawnAttacks(defender, square) & bitboards[WHITE_PAWNS + teamModifier]) != 0
+                || (LeaperAttacks.knightAttacks(square) & bitboards[WHITE_KNIGHTS + teamModifier]) != 0
+                || (LeaperAttacks.kingAttacks(square) & bitboards[WHITE_KINGS + teamModifier]) != 0) {
+            return true;
+        }
+        long queens = bitboards[WHITE_QUEENS + teamModifier];
+        long rooksAndQueens = bitboards[WHITE_ROOKS + teamModifier] | queens;
+        long bishopsAndQueens = bitboards[WHITE_BISHOPS + teamModifier] | queens;
+        return (SlidingAttacks.rookAttacks(square, occupancy) & rooksAndQueens) != 0
+                || (SlidingAttacks.bishopAttacks(square, occupancy) & bishopsAndQueens) != 0;
     }
 
     /**
@@ -164,7 +519,7 @@ public class ChessBoard {
         int index = row * 8;
 
         for (int i = index; i < index + 8; i++) {
-            bitboards[pawns] |= 1L << i;
+            placePiece(pawns, i);
         }
     }
 
@@ -187,13 +542,14 @@ public class ChessBoard {
 
         // For loop with switch statement to place the correct pieces
         for (int i = index; i < index + 8; i++) {
-            bitboards[pieces[i % 8]] |= 1L << i;
+            placePiece(pieces[i % 8], i);
         }
     }
 
     /**
-     * Method to get enPassant status. Currently not implemented.
-     * @return an int index of a pawn that can be used for en passant
+     * Method to get enPassant status. The move generator doesn't make en passant captures yet, but the square
+     * is tracked (doMove sets it after a double pawn push) so it shows up in FEN strings.
+     * @return the index of the square a pawn skipped over with a double push last move, or -1 if there isn't one
      */
     public int getEnPassant() {
         return enPassant;
@@ -204,12 +560,35 @@ public class ChessBoard {
      * @param index
      */
     public void setEnPassant(int index) {
-        enPassant = index;
+        syncDerivedState();
+        setState(index, castlingRights);
+    }
+
+    /**
+     * Gets the castling rights still available. A right only counts while its king and rook are on their starting
+     * squares, so a board set up with addPiece has the rights its pieces allow.
+     * @return the castling rights still available, as WHITE_KINGSIDE/WHITE_QUEENSIDE/BLACK_KINGSIDE/BLACK_QUEENSIDE
+     * bits
+     */
+    public int getCastlingRights() {
+        syncDerivedState();
+        return activeCastlingRights;
+    }
+
+    /**
+     * Method to set which castling rights are still available
+     * @param castlingRights is any combination of the castling rights bits
+     */
+    public void setCastlingRights(int castlingRights) {
+        syncDerivedState();
+        setState(enPassant, castlingRights & ALL_CASTLING);
     }
 
     /**
-     * Getter to get the array of bitboards representing the gameboard
-     * @return
+     * Getter to get the array of bitboards representing the gameboard.
+     * Treat this as read-only; changes should go through addPiece/placePiece/removePiece so the
+     * occupancy bitboards and mailbox stay in sync.
+     * @return the array of 12 piece bitboards
      */
     public long[] getBitboards() {
         return bitboards;
@@ -222,7 +601,17 @@ public class ChessBoard {
     public void copy(ChessBoard board){
         long[] copyBitboards = board.getBitboards();
         System.arraycopy(copyBitboards, 0, bitboards, 0, bitboards.length);
-        setEnPassant(board.getEnPassant());
+        board.syncDerivedState();
+        whiteOccupancy = board.whiteOccupancy;
+        blackOccupancy = board.blackOccupancy;
+        occupancy = board.occupancy;
+        System.arraycopy(board.mailbox, 0, mailbox, 0, mailbox.length);
+        zobristKey = board.zobristKey;
+        activeCastlingRights = board.activeCastlingRights;
+        derivedSynced = true;
+        undoSize = 0;
+        enPassant = board.enPassant;
+        castlingRights = board.castlingRights;
     }
 
     @Override
@@ -231,11 +620,13 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(bitboards, that.bitboards);
+        return Objects.deepEquals(bitboards, that.bitboards) && enPassant == that.enPassant
+                && getCastlingRights() == that.getCastlingRights();
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bitboards);
+        long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
     }
 }
@@ -0,0 +1,73 @@
+package chess;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * ChessBoardAdapter makes Gson write a ChessBoard as the board part of a FEN string (piece placement, castling
+ * rights, en passant square), like "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR KQkq -".
+ * Boards saved before this existed are JSON objects with a "bitboards" array, so those can still be read.
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        out.value(Fen.writeBoard(board));
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        return readValue(in);
+    }
+
+    /**
+     * Reads a board in either the FEN form or the old reflective form. ChessGameAdapter uses this for the
+     * board inside an old saved game.
+     */
+    static ChessBoard readValue(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            String fen = in.nextString();
+            try {
+                return Fen.parseBoard(fen);
+            } catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+
+        ChessBoard board = new ChessBoard();
+        board.emptyBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "bitboards" -> readBitboards(in, board);
+                case "enPassant" -> board.setEnPassant(in.nextInt());
+                case "castlingRights" -> board.setCastlingRights(in.nextInt());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+    private static void readBitboards(JsonReader in, ChessBoard board) throws IOException {
+        in.beginArray();
+        int bitboardIndex = 0;
+        while (in.hasNext()) {
+            long bitboard = in.nextLong();
+            if (bitboardIndex > ChessBoard.BLACK_KINGS) {
+                throw new JsonSyntaxException("A board has 12 bitboards");
+            }
+            while (bitboard != 0) {
+                board.placePiece(bitboardIndex, Long.numberOfTrailingZeros(bitboard));
+                bitboard &= bitboard - 1;
+            }
+            bitboardIndex++;
+        }
+        in.endArray();
+    }
+}
@@ -1,8 +1,13 @@
 package chess;
 
-import java.util.ArrayList;
+import chess.movecalculator.LegalMoveGenerator;
+import chess.movecalculator.MoveGenerator;
+import chess.movecalculator.MoveList;
+import chess.movecalculator.PackedMove;
+
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 
 /**
@@ -11,9 +16,27 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
     private ChessBoard gameBoard;
     private TeamColor currentTeamTurn;
+    // FEN move counters: moves since the last pawn move or capture (for the fifty-move rule), and the move number
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    /** The legal moves and status of the current position, each tagged with that position's Zobrist key.
+     * They're cleared whenever the game changes the position itself (makeMove, setBoard, setTeamTurn), but the
+     * board can also be changed from outside through getBoard, so the key is checked before either is used.
+     * Transient since they're never part of the saved game.
+     */
+    private transient CachedMoves cachedMoves;
+    private transient CachedStatus cachedStatus;
+
+    private record CachedMoves(long key, MoveList moves) {
+    }
+
+    private record CachedStatus(long key, PositionStatus status) {
+    }
 
     public ChessGame() {
         gameBoard = new ChessBoard();
@@ -22,6 +45,17 @@ public class ChessGame {
 
     }
 
+    /**
+     * Makes a game that takes over the given board instead of copying it, for Fen and BinaryGame, which build
+     * a fresh board anyway.
+     * @param board is the board to use; the caller shouldn't keep changing it
+     * @param teamTurn is the team whose turn it is
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn) {
+        gameBoard = board;
+        currentTeamTurn = teamTurn;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -36,6 +70,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         currentTeamTurn = team;
+        clearCaches();
     }
 
     /**
@@ -56,93 +91,47 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece piece = gameBoard.getPiece(startPosition.getIndex());
 
-        if (piece != null) {
-            ChessGame.TeamColor teamColor = piece.getTeamColor();
-            Collection<ChessMove> pieceMoves = piece.pieceMoves(gameBoard, startPosition);
-            return validMoveLoop(teamColor, pieceMoves);
+        if (piece == null) {
+            return null;
         }
-        return null;
-    }
-
-    private Collection<ChessMove> validMoveLoop(TeamColor teamColor, Collection<ChessMove> moves) {
-        ChessBoard boardCopy = new ChessBoard();
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        for (ChessMove move : moves) {
-            boardCopy.copy(gameBoard);
-            try {
-                boardCopy = makeMove(move, boardCopy);
-            } catch (InvalidMoveException e) {
-                throw new RuntimeException(e);
-            }
-            if (!isBoardInCheck(teamColor, boardCopy)) {
-                validMoves.add(move);
-            }
+        // The cached moves are only for the team whose turn it is
+        if (piece.getTeamColor() == currentTeamTurn) {
+            return legalMoves().toChessMoves(startPosition.getIndex());
         }
-        return validMoves;
+        return pieceValidMoves(startPosition.getIndex()).toChessMoves();
+    }
+
+    /**
+     * Gets every legal move for the team whose turn it is, generating them only the first time they're needed
+     * for a position.
+     * @return the cached MoveList of legal moves; callers must not change it
+     */
+    private MoveList legalMoves() {
+        long key = getZobristKey();
+        CachedMoves cached = cachedMoves;
+        if (cached != null && cached.key() == key) {
+            return cached.moves();
+        }
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generateMoves(gameBoard, currentTeamTurn, moves);
+        cachedMoves = new CachedMoves(key, moves);
+        return moves;
     }
 
-    // I asked an AI to evaluate my allValidMoves function in terms of logical consistency and efficiency.
-    // It seems there may be a better way of doing this using bitboards; I may implement a change in the future,
-    // but this will suffice for now.
-    private Collection<ChessMove> allValidMoves(TeamColor teamColor) {
-        Collection<ChessMove> teamMoves = allTeamMoves(teamColor, gameBoard);
-        return validMoveLoop(teamColor, teamMoves);
+    private void clearCaches() {
+        cachedMoves = null;
+        cachedStatus = null;
     }
 
     /**
-     * Gets all team moves possible before checking for check, castling, etc.
-     * @param teamColor the team we're getting moves for
-     * @param board the board we want to get moves from
-     * @return a collection of ChessMove objects containing every possible move from that team
+     * Gets the valid moves for the piece on a square as packed moves.
+     * @param square is the square (0-63) of the piece
+     * @return a MoveList of the piece's legal moves
      */
-    private Collection<ChessMove> allTeamMoves(TeamColor teamColor, ChessBoard board) {
-        int startingIndex = (teamColor == TeamColor.WHITE ? 0 : 6);
-        ChessPiece checkingPiece;
-        long[] gameBitboards = board.getBitboards();
-        Collection<ChessMove> possibleMoves = new HashSet<>();
-        ChessPosition checkPosition;
-
-        for (int i = startingIndex; i < startingIndex + 6; i++) {
-            long bitboard = gameBitboards[i];
-            checkingPiece = determinePiece(i, teamColor);
-            // I got this code idea from https://alexharri.com/blog/bit-set-iteration; I'm trying to learn bitwise
-            // operators, and two's complement makes this an efficient way of cycling through only our needed bits.
-            // Took a while for me to understand the premise, though.
-            while (bitboard != 0) {
-                // lsb == least significant bit
-                int lsb = (Long.numberOfTrailingZeros(bitboard & -bitboard));
-                checkPosition = new ChessPosition(lsb);
-                possibleMoves.addAll(checkingPiece.pieceMoves(board, checkPosition));
-                bitboard ^= (1L << lsb);
-            }
-        }
-        return possibleMoves;
-    }
-
-    private ChessPiece determinePiece(int index, TeamColor teamColor) {
-        return switch (index % 6) {
-            case 0 -> new ChessPiece(teamColor, ChessPiece.PieceType.PAWN);
-            case 5 -> new ChessPiece(teamColor, ChessPiece.PieceType.ROOK);
-            case 4 -> new ChessPiece(teamColor, ChessPiece.PieceType.KNIGHT);
-            case 3 -> new ChessPiece(teamColor, ChessPiece.PieceType.BISHOP);
-            case 2 -> new ChessPiece(teamColor, ChessPiece.PieceType.QUEEN);
-            case 1 -> new ChessPiece(teamColor, ChessPiece.PieceType.KING);
-            default -> throw new IllegalStateException("Unexpected value: " + index % 6);
-        };
-    }
-
-    private int getBitboardIndex(ChessPiece piece) {
-        int teamModifier = (piece.getTeamColor() == TeamColor.WHITE ? 0 : 6);
-        int indexNum = -11;
-        switch (piece.getPieceType()) {
-            case KING -> indexNum = 5;
-            case QUEEN -> indexNum = 4;
-            case BISHOP -> indexNum = 3;
-            case KNIGHT -> indexNum = 2;
-            case ROOK -> indexNum = 1;
-            case PAWN -> indexNum = 0;
-        }
-        return indexNum + teamModifier;
+    private MoveList pieceValidMoves(int square) {
+        MoveList validMoves = new MoveList();
+        LegalMoveGenerator.generatePieceMoves(gameBoard, square, validMoves);
+        return validMoves;
     }
 
     /**
@@ -152,64 +141,53 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPiece movePiece = gameBoard.getPiece(move.getStartPosition().getIndex());
-        if (movePiece != null && currentTeamTurn == movePiece.getTeamColor()
-        && validMoves(move.getStartPosition()).contains(move)) {
-            gameBoard = makeMove(move, gameBoard);
-            switchTeam();
-        }
-        else {
-            throw new InvalidMoveException("Invalid move attempted");
-        }
-    }
-
-    public ChessBoard makeMove(ChessMove move, ChessBoard board) throws InvalidMoveException {
-        int startIndex = move.getStartPosition().getIndex();
-        int endIndex = move.getEndPosition().getIndex();
-        ChessPiece movePiece = board.getPiece(startIndex);
-        ChessPiece targetPiece = board.getPiece(endIndex);
-
-        if (movePiece != null && move.getPromotionPiece() == null) {
-            gameBoard.setEnPassant(-1);
-            return tryNullPromoMove(board, movePiece, startIndex, endIndex, targetPiece);
-        }
-        else if (movePiece != null && move.getPromotionPiece() != null) {
-            gameBoard.setEnPassant(-1);
-            return tryPromotionMove(move, board, movePiece, startIndex, endIndex, targetPiece);
-        }
-        else {
-            throw new InvalidMoveException("Starting piece is null");
+        int packedMove = PackedMove.fromChessMove(move);
+        ChessPiece movePiece = packedMove == PackedMove.NONE ? null : gameBoard.getPiece(PackedMove.start(packedMove));
+        if (movePiece != null && currentTeamTurn == movePiece.getTeamColor()) {
+            boolean resetsClock = movePiece.getPieceType() == ChessPiece.PieceType.PAWN
+                    || gameBoard.getPiece(PackedMove.end(packedMove)) != null;
+            CachedMoves cached = cachedMoves;
+            if (cached != null && cached.key() == getZobristKey()) {
+                // We already know every legal move here, so just look it up
+                if (cached.moves().find(packedMove) != PackedMove.NONE) {
+                    gameBoard.doMove(packedMove);
+                    finishMove(resetsClock);
+                    return;
+                }
+            }
+            // Otherwise only the submitted move gets checked: can the piece make it, and is our king safe after?
+            else if (MoveGenerator.isPseudoLegal(gameBoard, packedMove)) {
+                gameBoard.doMove(packedMove);
+                if (!isBoardInCheck(currentTeamTurn, gameBoard)) {
+                    finishMove(resetsClock);
+                    return;
+                }
+                gameBoard.undoMove(packedMove);
+            }
         }
+        throw new InvalidMoveException("Invalid move attempted");
     }
 
-    private ChessBoard tryPromotionMove(ChessMove move, ChessBoard board, ChessPiece movePiece,
-                                        int startIndex, int endIndex, ChessPiece targetPiece) {
-        int pieceBBIndex = getBitboardIndex(movePiece);
-        board.getBitboards()[pieceBBIndex] &= ~(1L << startIndex);
-
-        pieceBBIndex = getBitboardIndex(new ChessPiece(currentTeamTurn, move.getPromotionPiece()));
-        board.getBitboards()[pieceBBIndex] |= (1L << endIndex);
-
-        if (targetPiece != null) {
-            int targetBBIndex = getBitboardIndex(targetPiece);
-            board.getBitboards()[targetBBIndex] &= ~(1L << endIndex);
+    /**
+     * Updates the move counters and passes the turn once a move has been made on the game board. The move's
+     * undo record is dropped too, since it's been played and won't be taken back.
+     * @param resetsClock is true if the move was a pawn move or a capture
+     */
+    private void finishMove(boolean resetsClock) {
+        gameBoard.clearUndoHistory();
+        halfmoveClock = resetsClock ? 0 : halfmoveClock + 1;
+        if (currentTeamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
-        return board;
+        switchTeam();
     }
 
-    private ChessBoard tryNullPromoMove(ChessBoard board, ChessPiece movePiece, int startIndex,
-                                        int endIndex, ChessPiece targetPiece) {
-        int pieceBBIndex = getBitboardIndex(movePiece);
-
-        // Set the index on the piece's bitboard
-        board.getBitboards()[pieceBBIndex] &= ~(1L << startIndex);
-        board.getBitboards()[pieceBBIndex] |= (1L << endIndex);
-
-        // Check for and set the index on the targeted piece's bitboard
-        if (targetPiece != null) {
-            int targetBBIndex = getBitboardIndex(targetPiece);
-            board.getBitboards()[targetBBIndex] &= ~(1L << endIndex);
+    public ChessBoard makeMove(ChessMove move, ChessBoard board) throws InvalidMoveException {
+        int packedMove = PackedMove.fromChessMove(move);
+        if (packedMove == PackedMove.NONE || board.getPiece(PackedMove.start(packedMove)) == null) {
+            throw new InvalidMoveException("Starting piece is null");
         }
+        board.doMove(packedMove);
         return board;
     }
 
@@ -234,16 +212,12 @@ public class ChessGame {
     private boolean isBoardInCheck(TeamColor teamColor, ChessBoard checkBoard) {
         int kingBBIndex = (teamColor == TeamColor.WHITE ? 5 : 11);
         long kingBitboard = checkBoard.getBitboards()[kingBBIndex];
-        int kingIndex = Long.numberOfTrailingZeros(kingBitboard & -kingBitboard);
-
-        Collection<ChessMove> enemyMoves = allTeamMoves(teamColor == TeamColor.WHITE ?
-                TeamColor.BLACK : TeamColor.WHITE, checkBoard);
-        for (ChessMove checkMove : enemyMoves) {
-            if (checkMove.getEndPosition().getIndex() == kingIndex) {
-                return true;
-            }
+        if (kingBitboard == 0) {
+            return false;
         }
-        return false;
+        int kingIndex = Long.numberOfTrailingZeros(kingBitboard);
+        return checkBoard.isSquareAttacked(kingIndex, teamColor == TeamColor.WHITE ?
+                TeamColor.BLACK : TeamColor.WHITE);
     }
 
     /**
@@ -253,25 +227,10 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-
-            ChessBoard boardCopy = new ChessBoard();
-            Collection<ChessMove> futureMoves = allTeamMoves(teamColor, gameBoard);
-
-            for (ChessMove i : futureMoves) {
-                boardCopy.copy(gameBoard);
-                try {
-                    boardCopy = makeMove(i, boardCopy);
-                } catch (InvalidMoveException e) {
-                    throw new RuntimeException(e);
-                }
-                if (!isBoardInCheck(teamColor, boardCopy)) {
-                    return false;
-                }
-            }
-            return true;
+        if (teamColor == currentTeamTurn) {
+            return getPositionStatus().checkmate();
         }
-        return false;
+        return isInCheck(teamColor) && !LegalMoveGenerator.hasLegalMove(gameBoard, teamColor);
     }
 
     /**
@@ -282,11 +241,33 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
+        if (teamColor == currentTeamTurn) {
+            return getPositionStatus().stalemate();
+        }
+        return !isInCheck(teamColor) && !LegalMoveGenerator.hasLegalMove(gameBoard, teamColor);
+    }
+
+    /**
+     * Gets the check, checkmate and stalemate status of the current position for the team whose turn it is,
+     * all from a single legal move generation. The result is cached until the position changes, so asking
+     * again after a move (like the server does for game status and then for check notifications) is free.
+     *
+     * @return the status of the current position
+     */
+    public PositionStatus getPositionStatus() {
+        long key = getZobristKey();
+        CachedStatus cached = cachedStatus;
+        if (cached != null && cached.key() == key) {
+            return cached.status();
         }
-        Collection<ChessMove> validMoves = allValidMoves(teamColor);
-        return validMoves.isEmpty();
+
+        MoveList legalMoves = legalMoves();
+        boolean inCheck = isInCheck(currentTeamTurn);
+        boolean noMoves = legalMoves.isEmpty();
+        PositionStatus status = new PositionStatus(currentTeamTurn, legalMoves.size(), inCheck,
+                inCheck && noMoves, !inCheck && noMoves);
+        cachedStatus = new CachedStatus(key, status);
+        return status;
     }
 
     /**
@@ -296,6 +277,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         gameBoard.copy(board);
+        clearCaches();
     }
 
     /**
@@ -307,8 +289,88 @@ public class ChessGame {
         return gameBoard;
     }
 
+    /**
+     * Makes a game from a FEN string, like "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+     * The move counters at the end can be left off.
+     *
+     * @param fen the FEN string to load
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string isn't valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * Writes the current position as a FEN string. This is much shorter than the game's JSON, so it's a cheap
+     * way to store, send, or compare positions.
+     *
+     * @return the FEN string for this game
+     */
+    public String toFen() {
+        return Fen.write(this);
+    }
+
+    /**
+     * Makes a game from the compact binary form written by toBytes.
+     *
+     * @param bytes the encoded game
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the bytes aren't an encoded game
+     */
+    public static ChessGame fromBytes(byte[] bytes) {
+        return BinaryGame.decode(bytes);
+    }
+
+    /**
+     * Writes the current position in a compact binary form (31 bytes for the starting position), which is what
+     * the server stores in the database. Like FEN, it keeps the position and move counters but not the history.
+     *
+     * @return the encoded game
+     */
+    public byte[] toBytes() {
+        return BinaryGame.encode(this);
+    }
+
+    /**
+     * @return the number of moves since the last pawn move or capture
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the current move number, which starts at 1 and goes up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the FEN move counters, like when loading a position partway through a game.
+     *
+     * @param halfmoveClock the number of moves since the last pawn move or capture
+     * @param fullmoveNumber the current move number
+     */
+    public void setMoveCounters(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Gets the Zobrist key of the current position: the board's key, XORed with the black-to-move key when it's
+     * black's turn. Since the board keeps its key up to date on every move and switching teams just flips one
+     * key, this never rehashes the board.
+     * @return the 64-bit Zobrist key for this game's position and side to move
+     */
+    public long getZobristKey() {
+        long key = gameBoard.getZobristKey();
+        return currentTeamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
     private void switchTeam() {
         currentTeamTurn = (currentTeamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
+        clearCaches();
     }
 
     @Override
@@ -322,6 +384,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(gameBoard, currentTeamTurn);
+        long key = getZobristKey();
+        return (int) (key ^ (key >>> 32));
     }
 }
\ No newline at end of file
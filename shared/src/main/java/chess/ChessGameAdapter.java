@@ -0,0 +1,60 @@
+package chess;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * ChessGameAdapter makes Gson write a ChessGame as its FEN string, like
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", instead of reflecting over the board's bitboards.
+ * It's attached to ChessGame with @JsonAdapter, so every Gson instance uses it, including ones we don't create.
+ * <p>
+ * Games saved before this existed are JSON objects ({"gameBoard": {...}, "currentTeamTurn": "WHITE"}), so those
+ * can still be read.
+ */
+class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        out.value(game.toFen());
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            String fen = in.nextString();
+            try {
+                return ChessGame.fromFen(fen);
+            } catch (IllegalArgumentException e) {
+                throw new JsonSyntaxException(e.getMessage(), e);
+            }
+        }
+        return readLegacy(in);
+    }
+
+    /**
+     * Reads the reflective JSON object Gson used to write for ChessGame.
+     */
+    private static ChessGame readLegacy(JsonReader in) throws IOException {
+        ChessGame game = new ChessGame();
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "gameBoard" -> game.setBoard(ChessBoardAdapter.readValue(in));
+                case "currentTeamTurn" -> game.setTeamTurn(ChessGame.TeamColor.valueOf(in.nextString()));
+                case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        game.setMoveCounters(halfmoveClock, fullmoveNumber);
+        return game;
+    }
+}
@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Objects;
 
 /**
@@ -8,10 +10,33 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessMoveAdapter.class)
 public class ChessMove {
-    private ChessPosition startPosition;
-    private ChessPosition endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    private final ChessPosition startPosition;
+    private final ChessPosition endPosition;
+    private final ChessPiece.PieceType promotionPiece;
+
+    /** Shared move objects indexed by (start * 64 + end) * 5 + promotion slot, where slot 0 is no promotion and
+     * slots 1-4 are QUEEN, BISHOP, KNIGHT and ROOK (see promotionSlot). Every plain move is filled in, and
+     * promotion moves are filled in for the squares a pawn can actually promote from.
+     */
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * 5];
+    private static final ChessPiece.PieceType[] SLOT_PIECES = {null, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
+
+    static {
+        for (int start = 0; start < 64; start++) {
+            for (int end = 0; end < 64; end++) {
+                MOVES[(start * 64 + end) * 5] = new ChessMove(ChessPosition.of(start), ChessPosition.of(end), null);
+                if (isPromotionSquare(start, end)) {
+                    for (int slot = 1; slot < 5; slot++) {
+                        MOVES[(start * 64 + end) * 5 + slot] = new ChessMove(ChessPosition.of(start),
+                                ChessPosition.of(end), SLOT_PIECES[slot]);
+                    }
+                }
+            }
+        }
+    }
 
     /**
      * Basic constructor that creates a chess move based on chessposition objects
@@ -34,11 +59,57 @@ public class ChessMove {
      */
     public ChessMove(int startIndex, int endIndex,
                      ChessPiece.PieceType promotionPiece) {
-        this.startPosition = new ChessPosition(startIndex / 8 + 1, startIndex % 8 + 1);
-        this.endPosition = new ChessPosition(endIndex / 8 + 1, endIndex % 8 + 1);
+        this.startPosition = ChessPosition.of(startIndex);
+        this.endPosition = ChessPosition.of(endIndex);
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared move for a pair of bitboard indices. Moves are immutable, so the move generators use this
+     * instead of the constructor to avoid allocating a new move (and two positions) for every candidate.
+     * @param startIndex is the starting position's index
+     * @param endIndex is the final position's index
+     * @param promotionPiece is the promotion piece, or null
+     * @return the cached ChessMove, or a new one if that combination isn't cached
+     */
+    public static ChessMove of(int startIndex, int endIndex, ChessPiece.PieceType promotionPiece) {
+        int slot = promotionSlot(promotionPiece);
+        if (slot >= 0) {
+            ChessMove move = MOVES[(startIndex * 64 + endIndex) * 5 + slot];
+            if (move != null) {
+                return move;
+            }
+        }
+        return new ChessMove(startIndex, endIndex, promotionPiece);
+    }
+
+    /**
+     * @return the cache slot for a promotion piece, or -1 for pieces a pawn can't promote to (those moves are
+     * illegal, but still get their own ChessMove so they can be rejected later instead of turning into plain moves)
+     */
+    private static int promotionSlot(ChessPiece.PieceType promotionPiece) {
+        if (promotionPiece == null) {
+            return 0;
+        }
+        return switch (promotionPiece) {
+            case QUEEN -> 1;
+            case BISHOP -> 2;
+            case KNIGHT -> 3;
+            case ROOK -> 4;
+            case KING, PAWN -> -1;
+        };
+    }
+
+    /**
+     * @return true if a pawn could promote moving from start to end
+     * (second-to-last rank to the last rank, at most one file over)
+     */
+    private static boolean isPromotionSquare(int start, int end) {
+        boolean whitePromotion = start / 8 == 6 && end / 8 == 7;
+        boolean blackPromotion = start / 8 == 1 && end / 8 == 0;
+        return (whitePromotion || blackPromotion) && Math.abs(start % 8 - end % 8) <= 1;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -0,0 +1,147 @@
+package chess;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * ChessMoveAdapter makes Gson write a ChessMove in long algebraic notation, like "e2e4" or "e7e8q" (the last letter
+ * is the promotion piece), instead of two nested position objects.
+ * Moves with a position off the board can't be written that way, so those (and any move sent by an older client)
+ * use the old {"startPosition": {"row": 2, "col": 5}, ...} object form, which can always be read.
+ */
+class ChessMoveAdapter extends TypeAdapter<ChessMove> {
+
+    @Override
+    public void write(JsonWriter out, ChessMove move) throws IOException {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (start == null || end == null || !isOnBoard(start) || !isOnBoard(end)) {
+            writeLegacy(out, move);
+            return;
+        }
+        String text = start.getCoordinates() + end.getCoordinates();
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        out.value(promotion == null ? text : text + promotionLetter(promotion));
+    }
+
+    @Override
+    public ChessMove read(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.STRING) {
+            return readLegacy(in);
+        }
+        String text = in.nextString();
+        if (text.length() != 4 && text.length() != 5) {
+            throw new JsonSyntaxException("Invalid move \"" + text + "\"");
+        }
+        int start = squareIndex(text, 0);
+        int end = squareIndex(text, 2);
+        ChessPiece.PieceType promotion = text.length() == 5 ? promotionPiece(text) : null;
+        return ChessMove.of(start, end, promotion);
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    private static int squareIndex(String text, int offset) {
+        int file = text.charAt(offset) - 'a';
+        int rank = text.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new JsonSyntaxException("Invalid move \"" + text + "\"");
+        }
+        return rank * 8 + file;
+    }
+
+    private static char promotionLetter(ChessPiece.PieceType type) {
+        return switch (type) {
+            case QUEEN -> 'q';
+            case ROOK -> 'r';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case KING -> 'k';
+            case PAWN -> 'p';
+        };
+    }
+
+    private static ChessPiece.PieceType promotionPiece(String text) {
+        return switch (text.charAt(4)) {
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new JsonSyntaxException("Invalid promotion piece in \"" + text + "\"");
+        };
+    }
+
+    private static void writeLegacy(JsonWriter out, ChessMove move) throws IOException {
+        out.beginObject();
+        writePosition(out.name("startPosition"), move.getStartPosition());
+        writePosition(out.name("endPosition"), move.getEndPosition());
+        if (move.getPromotionPiece() != null) {
+            out.name("promotionPiece").value(move.getPromotionPiece().name());
+        }
+        out.endObject();
+    }
+
+    private static void writePosition(JsonWriter out, ChessPosition position) throws IOException {
+        if (position == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("row").value(position.getRow());
+        out.name("col").value(position.getColumn());
+        out.endObject();
+    }
+
+    private static ChessMove readLegacy(JsonReader in) throws IOException {
+        ChessPosition start = null;
+        ChessPosition end = null;
+        ChessPiece.PieceType promotion = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "startPosition" -> start = readPosition(in);
+                case "endPosition" -> end = readPosition(in);
+                case "promotionPiece" -> {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    }
+                    else {
+                        promotion = ChessPiece.PieceType.valueOf(in.nextString());
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new ChessMove(start, end, promotion);
+    }
+
+    private static ChessPosition readPosition(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int row = 0;
+        int col = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "row" -> row = in.nextInt();
+                case "col" -> col = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return ChessPosition.of(row, col);
+    }
+}
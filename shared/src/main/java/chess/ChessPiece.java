@@ -12,14 +12,37 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
-    private ChessGame.TeamColor pieceColor;
-    private PieceType type;
+    private final ChessGame.TeamColor pieceColor;
+    private final PieceType type;
+
+    // One shared instance for every color/type pair, indexed by [color ordinal][type ordinal]
+    private static final ChessPiece[][] PIECES =
+            new ChessPiece[ChessGame.TeamColor.values().length][PieceType.values().length];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
 
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece. ChessPiece is immutable, so there's no need for more than one
+     * object per color and type; use this instead of the constructor anywhere pieces are created in bulk.
+     * @param pieceColor is the team of the piece
+     * @param type is the type of the piece
+     * @return the cached ChessPiece for that color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
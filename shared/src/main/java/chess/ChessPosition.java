@@ -12,6 +12,15 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    // One shared instance per square, indexed by bitboard index
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int index = 0; index < 64; index++) {
+            POSITIONS[index] = new ChessPosition(index);
+        }
+    }
+
     /**
      * Basic constructor based on row and column
      * @param row is row (1-8)
@@ -40,6 +49,29 @@ public class ChessPosition {
         this.col = (index % 8) + 1;
     }
 
+    /**
+     * Gets the shared position for a bitboard index. Positions are immutable, so hot paths should use this
+     * instead of allocating a new one.
+     * @param index is an int between 0 and 63
+     * @return the cached ChessPosition for that square
+     */
+    public static ChessPosition of(int index) {
+        return POSITIONS[index];
+    }
+
+    /**
+     * Gets the shared position for a row and column, or a new one if the coordinates are off the board.
+     * @param row is row (1-8)
+     * @param col is col (1-8)
+     * @return the ChessPosition for that square
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + (col - 1)];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
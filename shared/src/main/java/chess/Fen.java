@@ -0,0 +1,279 @@
+package chess;
+
+/**
+ * Fen reads and writes Forsyth-Edwards Notation, the standard one-line text form of a chess position:
+ * piece placement (row 8 first), side to move, castling rights, en passant square, halfmove clock and
+ * fullmove number. For example the starting position is
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+ * See https://www.chessprogramming.org/Forsyth-Edwards_Notation
+ * <p>
+ * The parser walks the string once and places pieces straight onto the bitboards, so it doesn't split the string
+ * or make a ChessPiece per square. The last two fields can be left off; they default to 0 and 1.
+ */
+final class Fen {
+    static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // FEN letters by bitboard index, white pieces in upper case
+    private static final char[] PIECE_LETTERS = {'P', 'R', 'N', 'B', 'Q', 'K', 'p', 'r', 'n', 'b', 'q', 'k'};
+    private static final char[] CASTLING_LETTERS = {'K', 'Q', 'k', 'q'};
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string.
+     * @param fen is the FEN string
+     * @return a new game in that position
+     * @throws IllegalArgumentException if the string isn't valid FEN
+     */
+    static ChessGame parse(String fen) {
+        ChessBoard board = new ChessBoard();
+        int position = parsePlacement(fen, board);
+
+        position = skipSpace(fen, position);
+        if (position >= fen.length()) {
+            throw invalid(fen, "missing side to move");
+        }
+        ChessGame.TeamColor teamTurn = switch (fen.charAt(position++)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw invalid(fen, "side to move must be w or b");
+        };
+        position = parseCastlingAndEnPassant(fen, position, board);
+
+        // Move counters (optional)
+        position = skipSpace(fen, position);
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (position < fen.length()) {
+            int end = nextSpace(fen, position);
+            halfmoveClock = parseCounter(fen, position, end);
+            position = skipSpace(fen, end);
+            if (position < fen.length()) {
+                end = nextSpace(fen, position);
+                fullmoveNumber = parseCounter(fen, position, end);
+                position = end;
+            }
+        }
+        checkEnd(fen, position);
+
+        ChessGame game = new ChessGame(board, teamTurn);
+        game.setMoveCounters(halfmoveClock, fullmoveNumber);
+        return game;
+    }
+
+    /**
+     * Builds a board from the board-only FEN fields: piece placement, castling rights and en passant square,
+     * like "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR KQkq -". The last two can be left off.
+     * @param fen is the board part of a FEN string
+     * @return a new board in that position
+     * @throws IllegalArgumentException if the string isn't valid
+     */
+    static ChessBoard parseBoard(String fen) {
+        ChessBoard board = new ChessBoard();
+        int position = parsePlacement(fen, board);
+        checkEnd(fen, parseCastlingAndEnPassant(fen, position, board));
+        return board;
+    }
+
+    /**
+     * Writes a game as a FEN string.
+     * @param game is the game to write
+     * @return the FEN string for the game's current position
+     */
+    static String write(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder fen = new StringBuilder(90);
+        writePlacement(board, fen);
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        writeCastlingAndEnPassant(board, fen);
+        fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Writes the board-only FEN fields (piece placement, castling rights, en passant square) that parseBoard reads.
+     * @param board is the board to write
+     * @return the board part of a FEN string
+     */
+    static String writeBoard(ChessBoard board) {
+        StringBuilder fen = new StringBuilder(80);
+        writePlacement(board, fen);
+        fen.append(' ');
+        writeCastlingAndEnPassant(board, fen);
+        return fen.toString();
+    }
+
+    /**
+     * parsePlacement reads the piece placement field onto an empty board.
+     * @return the position in the string just after the field
+     */
+    private static int parsePlacement(String fen, ChessBoard board) {
+        board.emptyBoard();
+        int position = 0;
+        int row = 7;
+        int col = 0;
+        while (position < fen.length() && fen.charAt(position) != ' ') {
+            char c = fen.charAt(position++);
+            if (c == '/') {
+                if (col != 8 || row == 0) {
+                    throw invalid(fen, "each row needs exactly 8 squares");
+                }
+                row--;
+                col = 0;
+            }
+            else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            }
+            else {
+                int bitboardIndex = bitboardIndexOf(c);
+                if (bitboardIndex == -1 || col > 7) {
+                    throw invalid(fen, "bad piece placement");
+                }
+                board.placePiece(bitboardIndex, row * 8 + col);
+                col++;
+            }
+            if (col > 8) {
+                throw invalid(fen, "each row needs exactly 8 squares");
+            }
+        }
+        if (row != 0 || col != 8) {
+            throw invalid(fen, "there need to be 8 rows of 8 squares");
+        }
+        return position;
+    }
+
+    /**
+     * parseCastlingAndEnPassant reads the castling rights and en passant fields onto the board.
+     * @return the position in the string just after the fields
+     */
+    private static int parseCastlingAndEnPassant(String fen, int position, ChessBoard board) {
+        position = skipSpace(fen, position);
+        int castlingRights = 0;
+        if (position < fen.length() && fen.charAt(position) == '-') {
+            position++;
+        }
+        else {
+            while (position < fen.length() && fen.charAt(position) != ' ') {
+                castlingRights |= switch (fen.charAt(position++)) {
+                    case 'K' -> ChessBoard.WHITE_KINGSIDE;
+                    case 'Q' -> ChessBoard.WHITE_QUEENSIDE;
+                    case 'k' -> ChessBoard.BLACK_KINGSIDE;
+                    case 'q' -> ChessBoard.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen, "bad castling rights");
+                };
+            }
+        }
+        board.setCastlingRights(castlingRights);
+
+        position = skipSpace(fen, position);
+        int enPassant = -1;
+        if (position < fen.length() && fen.charAt(position) == '-') {
+            position++;
+        }
+        else if (position < fen.length()) {
+            int file = fen.charAt(position) - 'a';
+            int rank = position + 1 < fen.length() ? fen.charAt(position + 1) - '1' : -1;
+            if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+                throw invalid(fen, "bad en passant square");
+            }
+            enPassant = rank * 8 + file;
+            position += 2;
+        }
+        board.setEnPassant(enPassant);
+        return position;
+    }
+
+    private static void writePlacement(ChessBoard board, StringBuilder fen) {
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                byte bitboardIndex = board.getBitboardIndex(row * 8 + col);
+                if (bitboardIndex == ChessBoard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(PIECE_LETTERS[bitboardIndex]);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+    }
+
+    private static void writeCastlingAndEnPassant(ChessBoard board, StringBuilder fen) {
+        int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < CASTLING_LETTERS.length; i++) {
+            if ((castlingRights & (1 << i)) != 0) {
+                fen.append(CASTLING_LETTERS[i]);
+            }
+        }
+
+        int enPassant = board.getEnPassant();
+        fen.append(' ');
+        if (enPassant < 0) {
+            fen.append('-');
+        }
+        else {
+            fen.append((char) ('a' + enPassant % 8)).append((char) ('1' + enPassant / 8));
+        }
+    }
+
+    private static void checkEnd(String fen, int position) {
+        if (skipSpace(fen, position) != fen.length()) {
+            throw invalid(fen, "unexpected text at the end");
+        }
+    }
+
+    private static int bitboardIndexOf(char letter) {
+        for (int i = 0; i < PIECE_LETTERS.length; i++) {
+            if (PIECE_LETTERS[i] == letter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseCounter(String fen, int start, int end) {
+        if (start == end) {
+            throw invalid(fen, "bad move counter");
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9' || value > 100_000) {
+                throw invalid(fen, "bad move counter");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int skipSpace(String fen, int position) {
+        while (position < fen.length() && fen.charAt(position) == ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int nextSpace(String fen, int position) {
+        while (position < fen.length() && fen.charAt(position) != ' ') {
+            position++;
+        }
+        return position;
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN \"" + fen + "\": " + reason);
+    }
+}
@@ -0,0 +1,15 @@
+package chess;
+
+/**
+ * PositionStatus is everything the server needs to know about a position after a move, worked out from one
+ * legal move generation for the team whose turn it is.
+ *
+ * @param teamToMove is the team whose turn it is in the position
+ * @param legalMoveCount is how many legal moves that team has
+ * @param inCheck is whether that team's king is attacked
+ * @param checkmate is whether that team is in check with no legal moves
+ * @param stalemate is whether that team is not in check but has no legal moves
+ */
+public record PositionStatus(ChessGame.TeamColor teamToMove, int legalMoveCount, boolean inCheck,
+                             boolean checkmate, boolean stalemate) {
+}
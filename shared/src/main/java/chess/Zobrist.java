@@ -0,0 +1,70 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist holds the random keys for Zobrist hashing: one 64-bit key per piece bitboard and square, one for
+ * black to move, one per set of castling rights and one per en passant file. A position's key is the XOR of
+ * the keys for everything in it, so moving a piece only takes XORing out its old square and XORing in its new
+ * one instead of rehashing the whole board.
+ * See https://www.chessprogramming.org/Zobrist_Hashing
+ * <p>
+ * The keys come from a fixed seed so the same position gets the same key in every JVM (and on the server and
+ * client alike).
+ */
+final class Zobrist {
+    private static final long SEED = 0x5EED_C0DE_CAFEL;
+
+    // Indexed [bitboard index][square], same bitboard order as ChessBoard
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    // Indexed by the castling rights bits (0-15), so changing rights is one XOR out and one XOR in
+    private static final long[] CASTLING_KEYS = new long[16];
+    // Indexed by file; the side to move already says which rank the en passant square is on
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] pieceKeys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                pieceKeys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // No rights left hashes to nothing, same as no en passant square
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param bitboardIndex is the index of the piece's bitboard (0-11)
+     * @param square is the square (0-63) the piece is on
+     * @return the key to XOR in or out when that piece lands on or leaves that square
+     */
+    static long pieceKey(int bitboardIndex, int square) {
+        return PIECE_KEYS[bitboardIndex][square];
+    }
+
+    /**
+     * @param castlingRights is any combination of the ChessBoard castling rights bits
+     * @return the key for those castling rights (0 for none)
+     */
+    static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param enPassant is the en passant square (0-63), or -1 for none
+     * @return the key for that square's file (0 for none)
+     */
+    static long enPassantKey(int enPassant) {
+        return enPassant < 0 ? 0L : EN_PASSANT_KEYS[enPassant % 8];
+    }
+}
@@ -10,10 +10,6 @@ public class BishopMove extends LinearMover{
     }
 
     private void calculateMoves() {
-        for (int horizontal = -1; horizontal <= 1; horizontal+=2) {
-            for (int vertical = -1; vertical <= 1; vertical+=2) {
-                calculateLinear(horizontal, vertical);
-            }
-        }
+        MoveGenerator.addBishopMoves(board, position.getIndex(), pieceColor(), packedMoves);
     }
 }
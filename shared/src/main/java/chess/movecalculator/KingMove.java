@@ -1,6 +1,7 @@
 package chess.movecalculator;
 
-import chess.*;
+import chess.ChessBoard;
+import chess.ChessPosition;
 
 public class KingMove extends MoveCalculator{
     public KingMove(ChessBoard board, ChessPosition position) {
@@ -9,25 +10,6 @@ public class KingMove extends MoveCalculator{
     }
 
     private void calculateMoves() {
-        int index = position.getIndex();
-        int endIndex;
-        ChessGame.TeamColor kingColor = board.getPiece(index).getTeamColor();
-
-        for (int horizontal = -1; horizontal <= 1; horizontal++) {
-            for (int vertical = -1; vertical <= 1; vertical++) {
-                if (horizontal != 0 || vertical != 0) {
-                    endIndex = index + horizontal + (8 * vertical);
-                    addMoveIfValid(index, endIndex, kingColor);
-                }
-            }
-        }
-    }
-    private void addMoveIfValid(int startIndex, int endIndex, ChessGame.TeamColor kingColor) {
-        ChessPiece targetPiece = board.getPiece(endIndex);
-        if (!isOutOfBounds(startIndex, endIndex)) {
-            if (targetPiece == null || targetPiece.getTeamColor() != kingColor){
-                moveList.add(new ChessMove(startIndex, endIndex, null));
-            }
-        }
+        MoveGenerator.addKingMoves(board, position.getIndex(), pieceColor(), packedMoves);
     }
 }
@@ -0,0 +1,82 @@
+package chess.movecalculator;
+
+import chess.ChessGame;
+
+/**
+ * LeaperAttacks holds precomputed attack tables for the pieces that jump to fixed offsets: knights, kings, and
+ * pawn captures. Each table has one bitboard per square, built once when the class loads, so finding where a
+ * leaper can go is a single array read instead of a loop with bounds checks.
+ */
+public final class LeaperAttacks {
+    private static final int[][] KNIGHT_OFFSETS = {
+            {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}
+    };
+    private static final int[][] WHITE_PAWN_OFFSETS = {{1, -1}, {1, 1}};
+    private static final int[][] BLACK_PAWN_OFFSETS = {{-1, -1}, {-1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // Indexed by team color ordinal: [0] is white, [1] is black
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = buildAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = buildAttacks(square, KING_OFFSETS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = buildAttacks(square, WHITE_PAWN_OFFSETS);
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = buildAttacks(square, BLACK_PAWN_OFFSETS);
+        }
+    }
+
+    private LeaperAttacks() {
+    }
+
+    /**
+     * @param square is the bitboard index (0-63) of the knight
+     * @return a bitboard of every square a knight on that square attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @param square is the bitboard index (0-63) of the king
+     * @return a bitboard of every square a king on that square attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Gets the diagonal capture squares for a pawn. Pushes aren't included since pawns can't capture forward.
+     * @param color is the team of the pawn, which decides whether it attacks up or down the board
+     * @param square is the bitboard index (0-63) of the pawn
+     * @return a bitboard of the squares that pawn attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * buildAttacks sets a bit for every offset that stays on the board from the given square.
+     * @param square is the starting bitboard index
+     * @param offsets is an array of {row, column} offsets
+     * @return the attack bitboard for that square
+     */
+    private static long buildAttacks(int square, int[][] offsets) {
+        long attacks = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] offset : offsets) {
+            int nextRow = row + offset[0];
+            int nextCol = col + offset[1];
+            if (nextRow >= 0 && nextRow < 8 && nextCol >= 0 && nextCol < 8) {
+                attacks |= 1L << (nextRow * 8 + nextCol);
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,203 @@
+package chess.movecalculator;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * LegalMoveGenerator writes only legal moves into a MoveList, so nothing has to be made and tested afterwards.
+ * It works out three things once per position before generating anything:
+ * <ul>
+ *     <li>the checkers (enemy pieces attacking our king), which give a check mask of the squares that capture
+ *     the checker or block its ray. In double check the mask is empty and only the king can move.</li>
+ *     <li>the pinned pieces (our only piece between the king and an enemy slider), which can only move along the
+ *     line through the king and the pinner.</li>
+ *     <li>for king moves, whether the target square is attacked with the king lifted off the board.</li>
+ * </ul>
+ * A board with no king for the moving team (like some of the test boards) has no checks or pins,
+ * so every pseudo-legal move is legal there.
+ */
+public final class LegalMoveGenerator {
+    private static final long ALL_SQUARES = -1L;
+
+    private LegalMoveGenerator() {
+    }
+
+    /**
+     * Generates every legal move for one team.
+     * @param board is the board to generate moves on
+     * @param color is the team to generate moves for
+     * @param moves is the list the moves are added to
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        addLegalMoves(board, color, ALL_SQUARES, moves);
+    }
+
+    /**
+     * Generates the legal moves for whatever piece is on the given square.
+     * @param board is the board to generate moves on
+     * @param square is the square (0-63) of the piece
+     * @param moves is the list the moves are added to
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece != null) {
+            addLegalMoves(board, piece.getTeamColor(), 1L << square, moves);
+        }
+    }
+
+    /**
+     * Checks whether a team has at least one legal move, which is all checkmate and stalemate need to know.
+     * @param board is the board to look at
+     * @param color is the team to move
+     * @return true if the team can make any legal move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        generateMoves(board, color, moves);
+        return !moves.isEmpty();
+    }
+
+    /**
+     * addLegalMoves generates the legal moves of every piece of one team that sits on a square in fromSquares.
+     */
+    private static void addLegalMoves(ChessBoard board, ChessGame.TeamColor color, long fromSquares,
+                                      MoveList moves) {
+        long[] bitboards = board.getBitboards();
+        int us = color == ChessGame.TeamColor.WHITE ? 0 : 6;
+        int them = 6 - us;
+        ChessGame.TeamColor enemy = MoveGenerator.opponent(color);
+        long ours = board.getOccupancy(color);
+        long enemies = board.getOccupancy(enemy);
+        long occupancy = ours | enemies;
+
+        long kingBitboard = bitboards[us + 5];
+        int kingSquare = Long.numberOfTrailingZeros(kingBitboard);
+        long checkMask = ALL_SQUARES;
+        long pinned = 0L;
+
+        if (kingBitboard != 0) {
+            long checkers = attackersOf(bitboards, kingSquare, color, them, occupancy);
+            if (Long.bitCount(checkers) > 1) {
+                checkMask = 0L;
+            }
+            else if (checkers != 0) {
+                checkMask = checkers | SlidingAttacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(bitboards, kingSquare, them, ours, enemies, occupancy);
+
+            if ((fromSquares & kingBitboard) != 0) {
+                long kingless = occupancy ^ kingBitboard;
+                long targets = LeaperAttacks.kingAttacks(kingSquare) & ~ours;
+                while (targets != 0) {
+                    int target = Long.numberOfTrailingZeros(targets);
+                    if (!board.isSquareAttacked(target, enemy, kingless)) {
+                        MoveGenerator.addTargetMoves(kingSquare, 1L << target, enemies, moves);
+                    }
+                    targets &= targets - 1;
+                }
+            }
+        }
+
+        // In double check only the king can move, and the king's moves are already done
+        if (checkMask == 0) {
+            return;
+        }
+
+        // Pawns that aren't pinned all move the same way, so they're generated together
+        long pawns = bitboards[us] & fromSquares;
+        MoveGenerator.addAllPawnMoves(pawns & ~pinned, color, occupancy, enemies, checkMask, moves);
+
+        for (int i = us; i < us + 5; i++) {
+            long pieces = bitboards[i] & fromSquares;
+            if (i == us) {
+                pieces &= pinned;
+            }
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                long allowed = checkMask;
+                if (((pinned >>> square) & 1L) != 0) {
+                    allowed &= SlidingAttacks.line(kingSquare, square);
+                }
+                if (i == us) {
+                    addPawnMoves(square, color, occupancy, enemies, allowed, moves);
+                }
+                else {
+                    long attacks = switch (i - us) {
+                        case 1 -> SlidingAttacks.rookAttacks(square, occupancy);
+                        case 2 -> LeaperAttacks.knightAttacks(square);
+                        case 3 -> SlidingAttacks.bishopAttacks(square, occupancy);
+                        default -> SlidingAttacks.queenAttacks(square, occupancy);
+                    };
+                    MoveGenerator.addTargetMoves(square, attacks & ~ours & allowed, enemies, moves);
+                }
+                pieces &= pieces - 1;
+            }
+        }
+    }
+
+    /**
+     * addPawnMoves adds one pawn's pushes and captures that land inside the allowed mask.
+     * A double push only needs its final square allowed; the square it passes over just has to be empty.
+     */
+    private static void addPawnMoves(int square, ChessGame.TeamColor color, long occupancy, long enemies,
+                                     long allowed, MoveList moves) {
+        boolean isWhite = color == ChessGame.TeamColor.WHITE;
+        int forward = isWhite ? 8 : -8;
+        int startingRow = isWhite ? 1 : 6;
+
+        int target = square + forward;
+        if (target >= 0 && target < 64 && ((occupancy >>> target) & 1L) == 0) {
+            if (((allowed >>> target) & 1L) != 0) {
+                MoveGenerator.addPawnMove(square, target, 0, moves);
+            }
+            int doubleTarget = target + forward;
+            if (square / 8 == startingRow && ((occupancy >>> doubleTarget) & 1L) == 0
+                    && ((allowed >>> doubleTarget) & 1L) != 0) {
+                MoveGenerator.addPawnMove(square, doubleTarget, PackedMove.DOUBLE_PUSH, moves);
+            }
+        }
+
+        long captures = LeaperAttacks.pawnAttacks(color, square) & enemies & allowed;
+        while (captures != 0) {
+            MoveGenerator.addPawnMove(square, Long.numberOfTrailingZeros(captures), PackedMove.CAPTURE, moves);
+            captures &= captures - 1;
+        }
+    }
+
+    /**
+     * attackersOf finds every enemy piece attacking a square, looking outward from the square the same way
+     * ChessBoard.isSquareAttacked does.
+     * @param color is the team that owns the square (so pawn attacks are looked up in its direction)
+     * @param them is the first bitboard index of the attacking team
+     */
+    private static long attackersOf(long[] bitboards, int square, ChessGame.TeamColor color, int them,
+                                    long occupancy) {
+        long queens = bitboards[them + 4];
+        return (LeaperAttacks.pawnAttacks(color, square) & bitboards[them])
+                | (LeaperAttacks.knightAttacks(square) & bitboards[them + 2])
+                | (LeaperAttacks.kingAttacks(square) & bitboards[them + 5])
+                | (SlidingAttacks.rookAttacks(square, occupancy) & (bitboards[them + 1] | queens))
+                | (SlidingAttacks.bishopAttacks(square, occupancy) & (bitboards[them + 3] | queens));
+    }
+
+    /**
+     * pinnedPieces finds our pieces that are the only thing between our king and an enemy slider.
+     * The sliders are found by looking from the king through our own pieces, as if only enemies could block.
+     */
+    private static long pinnedPieces(long[] bitboards, int kingSquare, int them, long ours, long enemies,
+                                     long occupancy) {
+        long queens = bitboards[them + 4];
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, enemies) & (bitboards[them + 1] | queens))
+                | (SlidingAttacks.bishopAttacks(kingSquare, enemies) & (bitboards[them + 3] | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            long blockers = SlidingAttacks.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & ours) != 0) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+}
@@ -1,73 +1,16 @@
 package chess.movecalculator;
 
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPiece;
 import chess.ChessPosition;
 
-import java.util.List;
-
 /**
- * LinearMover is a class that extends MoveCalculator, adding in a linear movement checker.
+ * LinearMover is a class that extends MoveCalculator, grouping together the pieces that move in lines.
+ * The rays themselves come from the magic bitboard tables in SlidingAttacks (see MoveGenerator), so a slider's
+ * moves are a single table lookup instead of a square-by-square walk.
  */
 
 public class LinearMover extends MoveCalculator{
     LinearMover(ChessBoard board, ChessPosition position) {
         super(board, position);
     }
-
-    /**
-     * calculateLinear will be called as part of moveCalculator.
-     * @param horizontalDirection will go left if -1, right if 1, and stay still if 0.
-     * @param verticalDirection will go down if -1, up if 1, and stay still if 0.
-     */
-    public void calculateLinear(int horizontalDirection, int verticalDirection) {
-        int index = position.getIndex();
-        int checking = index;
-        boolean obstructed = horizontalDirection == 0 && verticalDirection == 0;
-
-        ChessPiece startingPiece = board.getPiece(index);
-        ChessPiece foundPiece;
-
-        while (!obstructed) {
-            checking = checking + horizontalDirection + (8 * verticalDirection);
-            /** Check for board bounds **/
-            obstructed = isOutOfBounds(index, checking, horizontalDirection, verticalDirection);
-            foundPiece = board.getPiece(checking);
-            if (foundPiece == null) {
-                if (!obstructed) {
-                    moveList.add(new ChessMove(index, checking, null));
-                }
-            }
-            else if (foundPiece.getTeamColor() != startingPiece.getTeamColor() && !obstructed) {
-                moveList.add(new ChessMove(index, checking, null));
-                obstructed = true;
-            }
-            else {
-                obstructed = true;
-            }
-        }
-    }
-
-    public boolean isOutOfBounds(int index, int checking, int horizontal, int vertical) {
-        int startingCol = index % 8;
-        int nextCol = checking % 8;
-        int startingRow = index / 8;
-        int nextRow = checking / 8;
-
-        if (checking < 0 || checking > 63) {
-            return true;
-        }
-        if (vertical == 0) {
-            if (startingRow != nextRow) {
-                return true;
-            }
-        }
-        if (horizontal == -1) {
-            return startingCol < nextCol;
-        } else if (horizontal == 1) {
-            return startingCol > nextCol;
-        }
-        return false;
-    }
 }
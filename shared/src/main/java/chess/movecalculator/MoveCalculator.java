@@ -2,20 +2,21 @@ package chess.movecalculator;
 
 import chess.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * MoveCalculator is a superclass that will be used by all move calculators.
  * It will contain the necessary variables and method declarations for a move calculator.
- * We will create a dynamic list of ChessMove objects for use when calculating all moves.
+ * The moves themselves are generated as packed ints by MoveGenerator; the calculators are the public-facing
+ * side that turns those into a list of ChessMove objects for pieceMoves.
  */
 public class MoveCalculator {
     /** Variables **/
-    List<ChessMove> moveList = new ArrayList<>();
+    List<ChessMove> moveList;
     ChessBoard board;
     ChessPosition position;
+    MoveList packedMoves = new MoveList();
 
     MoveCalculator(ChessBoard board, ChessPosition position) {
         this.board = board;
@@ -23,22 +24,17 @@ public class MoveCalculator {
     }
 
     /**
-     * isOutOfBounds ensures that the index does not exceed the current boundaries.
-     * @param index is the starting index
-     * @param checking is the index we're testing
-     * @return true if checking is out of bounds, false if within bounds.
+     * @return the team of the piece we're calculating moves for
      */
-    public boolean isOutOfBounds(int index, int checking) {
-        int startingCol = index % 8;
-        int nextCol = checking % 8;
-
-        if (checking == index || checking < 0 || checking > 63) {
-            return true;
-        }
-        return Math.abs(nextCol - startingCol) > 2;
+    ChessGame.TeamColor pieceColor() {
+        long white = board.getOccupancy(ChessGame.TeamColor.WHITE);
+        return ((white >>> position.getIndex()) & 1L) == 1 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
     }
 
     public List<ChessMove> getMoves(){
+        if (moveList == null) {
+            moveList = packedMoves.toChessMoves();
+        }
         return moveList;
     }
 
@@ -48,11 +44,11 @@ public class MoveCalculator {
             return false;
         }
         MoveCalculator that = (MoveCalculator) o;
-        return Objects.equals(moveList, that.moveList);
+        return Objects.equals(getMoves(), that.getMoves());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(moveList);
+        return Objects.hash(getMoves());
     }
 }
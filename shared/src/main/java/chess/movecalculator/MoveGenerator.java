@@ -0,0 +1,267 @@
+package chess.movecalculator;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * MoveGenerator writes pseudo-legal moves (moves that ignore whether the king is left in check) into a MoveList
+ * as packed ints. Every target set comes from the attack tables in SlidingAttacks and LeaperAttacks, masked with
+ * the board's occupancy bitboards, so generating moves doesn't allocate.
+ * The MoveCalculator subclasses and ChessGame both generate through here.
+ */
+public final class MoveGenerator {
+    // Promotion pieces in the order the calculators have always listed them
+    private static final ChessPiece.PieceType[] PROMOTION_PIECES = {
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN
+    };
+
+    // Bitboard masks for the first and last columns, so captures don't wrap around the edge of the board
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final long LAST_COLUMN = FIRST_COLUMN << 7;
+    // The rows a single push from the starting row lands on; a double push continues from there
+    private static final long WHITE_DOUBLE_PUSH_ROW = 0xFFL << 16;
+    private static final long BLACK_DOUBLE_PUSH_ROW = 0xFFL << 40;
+    private static final long ALL_SQUARES = -1L;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generates every pseudo-legal move for one team.
+     * Bitboards are indexed pawns, rooks, knights, bishops, queens, kings; white at 0-5 and black at 6-11.
+     * @param board is the board to generate moves on
+     * @param color is the team to generate moves for
+     * @param moves is the list the moves are added to
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        long[] bitboards = board.getBitboards();
+        int startingIndex = color == ChessGame.TeamColor.WHITE ? 0 : 6;
+        addAllPawnMoves(bitboards[startingIndex], color, board.getOccupancy(),
+                board.getOccupancy(opponent(color)), ALL_SQUARES, moves);
+        for (int i = startingIndex + 1; i < startingIndex + 6; i++) {
+            long bitboard = bitboards[i];
+            while (bitboard != 0) {
+                int square = Long.numberOfTrailingZeros(bitboard);
+                addMovesByIndex(board, i - startingIndex, square, color, moves);
+                bitboard &= bitboard - 1;
+            }
+        }
+    }
+
+    /**
+     * Generates the pseudo-legal moves for whatever piece is on the given square.
+     * @param board is the board to generate moves on
+     * @param square is the square (0-63) of the piece
+     * @param moves is the list the moves are added to
+     */
+    public static void generatePieceMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return;
+        }
+        ChessGame.TeamColor color = piece.getTeamColor();
+        switch (piece.getPieceType()) {
+            case PAWN -> addPawnMoves(board, square, color, moves);
+            case ROOK -> addRookMoves(board, square, color, moves);
+            case KNIGHT -> addKnightMoves(board, square, color, moves);
+            case BISHOP -> addBishopMoves(board, square, color, moves);
+            case QUEEN -> addQueenMoves(board, square, color, moves);
+            case KING -> addKingMoves(board, square, color, moves);
+        }
+    }
+
+    /**
+     * Checks whether a single move is pseudo-legal (the piece can make it, ignoring whether the king ends up in
+     * check) without generating the piece's other moves. Promotions have to be given exactly when a pawn
+     * reaches the last row, and only to a rook, knight, bishop or queen.
+     * @param board is the board to check the move on
+     * @param move is the packed move to check
+     * @return true if the piece on the start square can make the move
+     */
+    public static boolean isPseudoLegal(ChessBoard board, int move) {
+        int start = PackedMove.start(move);
+        int end = PackedMove.end(move);
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) {
+            return false;
+        }
+        ChessGame.TeamColor color = piece.getTeamColor();
+        long endBit = 1L << end;
+        if ((board.getOccupancy(color) & endBit) != 0) {
+            return false;
+        }
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        long occupancy = board.getOccupancy();
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            int endRow = end / 8;
+            boolean reachesLastRow = endRow == 7 || endRow == 0;
+            if (reachesLastRow != (promotion != null) || promotion == ChessPiece.PieceType.KING
+                    || promotion == ChessPiece.PieceType.PAWN) {
+                return false;
+            }
+            if ((LeaperAttacks.pawnAttacks(color, start) & endBit) != 0) {
+                return (board.getOccupancy(opponent(color)) & endBit) != 0;
+            }
+            int forward = color == ChessGame.TeamColor.WHITE ? 8 : -8;
+            int startingRow = color == ChessGame.TeamColor.WHITE ? 1 : 6;
+            if ((occupancy & endBit) != 0) {
+                return false;
+            }
+            return end == start + forward || (end == start + 2 * forward && start / 8 == startingRow
+                    && ((occupancy >>> (start + forward)) & 1L) == 0);
+        }
+        if (promotion != null) {
+            return false;
+        }
+
+        long attacks = switch (piece.getPieceType()) {
+            case ROOK -> SlidingAttacks.rookAttacks(start, occupancy);
+            case KNIGHT -> LeaperAttacks.knightAttacks(start);
+            case BISHOP -> SlidingAttacks.bishopAttacks(start, occupancy);
+            case QUEEN -> SlidingAttacks.queenAttacks(start, occupancy);
+            default -> LeaperAttacks.kingAttacks(start);
+        };
+        return (attacks & endBit) != 0;
+    }
+
+    private static void addMovesByIndex(ChessBoard board, int pieceIndex, int square,
+                                        ChessGame.TeamColor color, MoveList moves) {
+        switch (pieceIndex) {
+            case 0 -> addPawnMoves(board, square, color, moves);
+            case 1 -> addRookMoves(board, square, color, moves);
+            case 2 -> addKnightMoves(board, square, color, moves);
+            case 3 -> addBishopMoves(board, square, color, moves);
+            case 4 -> addQueenMoves(board, square, color, moves);
+            default -> addKingMoves(board, square, color, moves);
+        }
+    }
+
+    public static void addRookMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        addTargets(board, square, color, SlidingAttacks.rookAttacks(square, board.getOccupancy()), moves);
+    }
+
+    public static void addBishopMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        addTargets(board, square, color, SlidingAttacks.bishopAttacks(square, board.getOccupancy()), moves);
+    }
+
+    public static void addQueenMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        addTargets(board, square, color, SlidingAttacks.queenAttacks(square, board.getOccupancy()), moves);
+    }
+
+    public static void addKnightMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        addTargets(board, square, color, LeaperAttacks.knightAttacks(square), moves);
+    }
+
+    public static void addKingMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        addTargets(board, square, color, LeaperAttacks.kingAttacks(square), moves);
+    }
+
+    /**
+     * Adds pawn pushes (single, and double from the starting row) and diagonal captures for one pawn.
+     * Moves onto the last row are added once per promotion piece.
+     */
+    public static void addPawnMoves(ChessBoard board, int square, ChessGame.TeamColor color, MoveList moves) {
+        boolean isWhite = color == ChessGame.TeamColor.WHITE;
+        int forward = isWhite ? 8 : -8;
+        int startingRow = isWhite ? 1 : 6;
+        long occupancy = board.getOccupancy();
+
+        int target = square + forward;
+        if (target >= 0 && target < 64 && ((occupancy >>> target) & 1L) == 0) {
+            addPawnMove(square, target, 0, moves);
+            int doubleTarget = target + forward;
+            if (square / 8 == startingRow && ((occupancy >>> doubleTarget) & 1L) == 0) {
+                addPawnMove(square, doubleTarget, PackedMove.DOUBLE_PUSH, moves);
+            }
+        }
+
+        long captures = LeaperAttacks.pawnAttacks(color, square) & board.getOccupancy(opponent(color));
+        while (captures != 0) {
+            addPawnMove(square, Long.numberOfTrailingZeros(captures), PackedMove.CAPTURE, moves);
+            captures &= captures - 1;
+        }
+    }
+
+    /**
+     * Adds the moves of a whole set of pawns at once by shifting the pawn bitboard: one shift finds every
+     * single push, a second shift of the pushes that landed on the third row finds the double pushes, and a
+     * shift each way (with the edge column masked off) finds the captures. Each target's pawn is then just the
+     * target minus the shift.
+     * @param pawns is the bitboard of pawns to move
+     * @param color is the team of the pawns
+     * @param occupancy is the bitboard of every occupied square
+     * @param enemies is the bitboard of the other team's pieces
+     * @param allowed is the bitboard of squares the pawns may land on (every square, or a check mask)
+     * @param moves is the list the moves are added to
+     */
+    static void addAllPawnMoves(long pawns, ChessGame.TeamColor color, long occupancy, long enemies,
+                                long allowed, MoveList moves) {
+        long empty = ~occupancy;
+        if (color == ChessGame.TeamColor.WHITE) {
+            long singlePushes = (pawns << 8) & empty;
+            long doublePushes = ((singlePushes & WHITE_DOUBLE_PUSH_ROW) << 8) & empty & allowed;
+            addShiftedPawnMoves(singlePushes & allowed, 8, 0, moves);
+            addShiftedPawnMoves(doublePushes, 16, PackedMove.DOUBLE_PUSH, moves);
+            addShiftedPawnMoves(((pawns & ~FIRST_COLUMN) << 7) & enemies & allowed, 7, PackedMove.CAPTURE, moves);
+            addShiftedPawnMoves(((pawns & ~LAST_COLUMN) << 9) & enemies & allowed, 9, PackedMove.CAPTURE, moves);
+        }
+        else {
+            long singlePushes = (pawns >>> 8) & empty;
+            long doublePushes = ((singlePushes & BLACK_DOUBLE_PUSH_ROW) >>> 8) & empty & allowed;
+            addShiftedPawnMoves(singlePushes & allowed, -8, 0, moves);
+            addShiftedPawnMoves(doublePushes, -16, PackedMove.DOUBLE_PUSH, moves);
+            addShiftedPawnMoves(((pawns & ~FIRST_COLUMN) >>> 9) & enemies & allowed, -9, PackedMove.CAPTURE, moves);
+            addShiftedPawnMoves(((pawns & ~LAST_COLUMN) >>> 7) & enemies & allowed, -7, PackedMove.CAPTURE, moves);
+        }
+    }
+
+    /**
+     * addShiftedPawnMoves turns a bitboard of pawn targets back into moves, given how far the pawns were shifted.
+     */
+    private static void addShiftedPawnMoves(long targets, int shift, int flags, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            addPawnMove(target - shift, target, flags, moves);
+            targets &= targets - 1;
+        }
+    }
+
+    static void addPawnMove(int start, int end, int flags, MoveList moves) {
+        int endRow = end / 8;
+        if (endRow == 7 || endRow == 0) {
+            for (ChessPiece.PieceType promotion : PROMOTION_PIECES) {
+                moves.add(PackedMove.encode(start, end, promotion, flags));
+            }
+        }
+        else {
+            moves.add(PackedMove.encode(start, end, null, flags));
+        }
+    }
+
+    /**
+     * addTargets adds a move to every attacked square that isn't held by our own team, flagging captures.
+     */
+    private static void addTargets(ChessBoard board, int square, ChessGame.TeamColor color, long attacks,
+                                   MoveList moves) {
+        addTargetMoves(square, attacks & ~board.getOccupancy(color), board.getOccupancy(opponent(color)), moves);
+    }
+
+    /**
+     * addTargetMoves adds a move from square to every square in targets, flagging the ones that land on an enemy.
+     */
+    static void addTargetMoves(int square, long targets, long enemies, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            int flags = ((enemies >>> target) & 1L) != 0 ? PackedMove.CAPTURE : 0;
+            moves.add(PackedMove.encode(square, target, null, flags));
+            targets &= targets - 1;
+        }
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,93 @@
+package chess.movecalculator;
+
+import chess.ChessMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MoveList is a growable list of packed moves (see PackedMove) backed by a plain int array.
+ * The move generator writes into one of these instead of building ChessMove objects, and a list can be cleared
+ * and reused across many positions without allocating again.
+ */
+public final class MoveList {
+    // No legal chess position has more than 218 moves, so this is almost never outgrown
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Looks for a move with the same start, end and promotion piece (flags are ignored).
+     * @param move is the packed move to look for
+     * @return the matching move from this list, or PackedMove.NONE if there isn't one
+     */
+    public int find(int move) {
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.matches(moves[i], move)) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Converts every move in the list into a ChessMove. This is where packed moves leave the generator.
+     * @return a new list of ChessMove objects
+     */
+    public List<ChessMove> toChessMoves() {
+        List<ChessMove> chessMoves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(PackedMove.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    /**
+     * Converts the moves that start on one square into ChessMoves, for pulling one piece's moves out of a
+     * whole team's list.
+     * @param startSquare is the square (0-63) the moves have to start on
+     * @return a new list of ChessMove objects
+     */
+    public List<ChessMove> toChessMoves(int startSquare) {
+        List<ChessMove> chessMoves = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (PackedMove.start(moves[i]) == startSquare) {
+                chessMoves.add(PackedMove.toChessMove(moves[i]));
+            }
+        }
+        return chessMoves;
+    }
+}
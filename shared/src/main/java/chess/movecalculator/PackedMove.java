@@ -0,0 +1,105 @@
+package chess.movecalculator;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * PackedMove is the move representation used inside the move generator: a whole move packed into one int,
+ * so generating and filtering moves doesn't allocate anything. ChessMove objects are only made from these at
+ * the public API boundary.
+ * <p>
+ * Layout (low bits first):
+ * <ul>
+ *     <li>bits 0-5: start square (0-63)</li>
+ *     <li>bits 6-11: end square (0-63)</li>
+ *     <li>bits 12-14: promotion piece, stored as PieceType ordinal + 1 (0 means no promotion)</li>
+ *     <li>bits 15+: flags (CAPTURE, DOUBLE_PUSH)</li>
+ * </ul>
+ */
+public final class PackedMove {
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    // Returned by fromChessMove when the move can't be encoded (a position is off the board)
+    public static final int NONE = -1;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    // Everything but the flags; two moves with the same start, end and promotion match on these bits
+    private static final int MOVE_MASK = (1 << 15) - 1;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move into an int.
+     * @param start is the starting square (0-63)
+     * @param end is the ending square (0-63)
+     * @param promotionPiece is the promotion piece, or null for no promotion
+     * @param flags is any combination of CAPTURE and DOUBLE_PUSH
+     * @return the packed move
+     */
+    public static int encode(int start, int end, ChessPiece.PieceType promotionPiece, int flags) {
+        int promotion = promotionPiece == null ? 0 : promotionPiece.ordinal() + 1;
+        return start | (end << 6) | (promotion << PROMOTION_SHIFT) | flags;
+    }
+
+    public static int start(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int end(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * @param move is a packed move
+     * @return the promotion piece, or null if the move isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotion = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return promotion == 0 ? null : PIECE_TYPES[promotion - 1];
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return true if both moves have the same start, end and promotion piece, ignoring flags
+     */
+    public static boolean matches(int move, int other) {
+        return ((move ^ other) & MOVE_MASK) == 0;
+    }
+
+    /**
+     * Converts a packed move into the (cached) ChessMove used by the public API.
+     * @param move is a packed move
+     * @return the equivalent ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(start(move), end(move), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove. Flags aren't known from a ChessMove alone, so they're left empty; compare the result
+     * against generated moves with matches().
+     * @param move is the move to pack
+     * @return the packed move, or NONE if either position is off the board
+     */
+    public static int fromChessMove(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!isOnBoard(start) || !isOnBoard(end)) {
+            return NONE;
+        }
+        return encode(start.getIndex(), end.getIndex(), move.getPromotionPiece(), 0);
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+}
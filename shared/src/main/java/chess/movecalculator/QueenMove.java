@@ -10,10 +10,6 @@ public class QueenMove extends LinearMover{
     }
 
     private void calculateMoves() {
-        for (int horizontal = -1; horizontal <= 1; horizontal++) {
-            for (int vertical = -1; vertical <= 1; vertical++) {
-                calculateLinear(horizontal, vertical);
-            }
-        }
+        MoveGenerator.addQueenMoves(board, position.getIndex(), pieceColor(), packedMoves);
     }
 }
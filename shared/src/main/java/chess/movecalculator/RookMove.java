@@ -10,11 +10,6 @@ public class RookMove extends LinearMover{
     }
 
     private void calculateMoves() {
-        for (int horizontal = -1; horizontal <= 1; horizontal+=2) {
-            calculateLinear(horizontal, 0);
-        }
-        for (int vertical = -1; vertical <= 1; vertical+=2) {
-            calculateLinear(0, vertical);
-        }
+        MoveGenerator.addRookMoves(board, position.getIndex(), pieceColor(), packedMoves);
     }
 }
@@ -0,0 +1,228 @@
+package chess.movecalculator;
+
+/**
+ * SlidingAttacks holds precomputed magic bitboard attack tables for rooks and bishops (queens are just both).
+ * Every square gets a mask of the squares that can block it, a magic multiplier, and a table of attack sets.
+ * To look up attacks we mask the board occupancy, multiply by the magic, and shift down to get a table index,
+ * so a slider's full attack set is one multiply and one array read no matter how long its rays are.
+ * The technique is explained at https://www.chessprogramming.org/Magic_Bitboards
+ * <p>
+ * The magics were found offline with a random search; only the tables are built when the class loads.
+ */
+public final class SlidingAttacks {
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+            0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+            0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+            0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+            0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+            0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+            0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+            0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+            0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+            0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+            0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+            0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+            0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+            0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+            0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+            0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+            0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+            0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    // Squares strictly between two squares, and the whole board line through them (0 if they don't share a line)
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS[square], ROOK_SHIFTS, ROOK_TABLE);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS[square], BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                initLines(from, to);
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * Gets every square a rook attacks from the given square, including the first blocker in each direction.
+     * @param square is the bitboard index (0-63) of the rook
+     * @param occupancy is the bitboard of every occupied square on the board
+     * @return a bitboard of attacked squares
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        long blockers = occupancy & ROOK_MASKS[square];
+        return ROOK_TABLE[square][(int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Gets every square a bishop attacks from the given square, including the first blocker in each direction.
+     * @param square is the bitboard index (0-63) of the bishop
+     * @param occupancy is the bitboard of every occupied square on the board
+     * @return a bitboard of attacked squares
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        long blockers = occupancy & BISHOP_MASKS[square];
+        return BISHOP_TABLE[square][(int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Gets every square a queen attacks from the given square (the union of rook and bishop attacks).
+     * @param square is the bitboard index (0-63) of the queen
+     * @param occupancy is the bitboard of every occupied square on the board
+     * @return a bitboard of attacked squares
+     */
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * Gets the squares strictly between two squares on the same rank, file or diagonal.
+     * Blocking a check means moving onto one of these (or capturing the checker).
+     * @param from is one end (0-63)
+     * @param to is the other end (0-63)
+     * @return a bitboard of the squares in between, or 0 if the squares don't share a line
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Gets the whole line across the board through two squares, including both of them.
+     * A pinned piece can only move along the line through its king and the pinning piece.
+     * @param from is one square (0-63)
+     * @param to is another square (0-63)
+     * @return a bitboard of the line, or 0 if the squares don't share a rank, file or diagonal
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * initLines fills BETWEEN and LINE for one pair of squares using the empty-board attack sets:
+     * two squares on the same line see each other, and the overlap of their rays is what's between them.
+     */
+    private static void initLines(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        if ((rookAttacks(from, 0L) & toBit) != 0) {
+            BETWEEN[from][to] = rookAttacks(from, toBit) & rookAttacks(to, fromBit);
+            LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | fromBit | toBit;
+        }
+        else if ((bishopAttacks(from, 0L) & toBit) != 0) {
+            BETWEEN[from][to] = bishopAttacks(from, toBit) & bishopAttacks(to, fromBit);
+            LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | fromBit | toBit;
+        }
+    }
+
+    /**
+     * initSquare builds the blocker mask and fills the attack table for one square.
+     * Every subset of the mask is enumerated with the carry-rippler trick (subset = (subset - mask) & mask),
+     * and its attack set is stored at the slot the magic maps it to.
+     */
+    private static void initSquare(int square, int[][] directions, long[] masks, long magic,
+                                   int[] shifts, long[][] tables) {
+        long mask = blockerMask(square, directions);
+        int shift = 64 - Long.bitCount(mask);
+        long[] table = new long[1 << Long.bitCount(mask)];
+        boolean[] filled = new boolean[table.length];
+
+        long subset = 0L;
+        do {
+            long attacks = walkAttacks(square, subset, directions);
+            int index = (int) ((subset * magic) >>> shift);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic for square " + square);
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        masks[square] = mask;
+        shifts[square] = shift;
+        tables[square] = table;
+    }
+
+    /**
+     * blockerMask gets the squares along each ray that could block the slider.
+     * The last square of each ray is left out, since a piece there can't block anything behind it.
+     */
+    private static long blockerMask(int square, int[][] directions) {
+        long mask = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] direction : directions) {
+            int nextRow = row + direction[0];
+            int nextCol = col + direction[1];
+            while (isOnBoard(nextRow + direction[0], nextCol + direction[1])) {
+                mask |= 1L << (nextRow * 8 + nextCol);
+                nextRow += direction[0];
+                nextCol += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * walkAttacks is the slow ray-walking version of the attack lookup; it's only used to build the tables.
+     */
+    private static long walkAttacks(int square, long occupancy, int[][] directions) {
+        long attacks = 0L;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] direction : directions) {
+            int nextRow = row + direction[0];
+            int nextCol = col + direction[1];
+            while (isOnBoard(nextRow, nextCol)) {
+                long bit = 1L << (nextRow * 8 + nextCol);
+                attacks |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                nextRow += direction[0];
+                nextCol += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < 8 && col >= 0 && col < 8;
+    }
+}
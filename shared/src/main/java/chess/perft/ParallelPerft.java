@@ -0,0 +1,217 @@
+package chess.perft;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.movecalculator.LegalMoveGenerator;
+import chess.movecalculator.MoveList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ParallelPerft runs perft on a ForkJoinPool. The top of the tree is split into one task per move, and each task
+ * makes its move on its own copy of the board (ChessBoard.copy), so no board is ever shared between threads.
+ * Below SPLIT_PLIES the tasks just run the normal single-threaded Perft.count.
+ * <p>
+ * This is also the pattern to follow for any other deep analysis that should use every core: copy the board per
+ * task and keep the per-thread work single-threaded.
+ */
+public final class ParallelPerft {
+    // How many plies at the top of the tree get split into tasks. Two plies gives ~400 tasks from the starting
+    // position, which keeps 32 threads busy even though some subtrees are much bigger than others.
+    private static final int SPLIT_PLIES = 2;
+
+    private ParallelPerft() {
+    }
+
+    /**
+     * Counts the leaf positions reachable in exactly depth moves, using the given pool. The given board isn't changed.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go
+     * @param pool is the pool to run the tasks on
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessBoard board, ChessGame.TeamColor color, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(board, color, depth, SPLIT_PLIES));
+    }
+
+    /**
+     * Counts the leaf positions with a pool of the given size, which is shut down afterwards.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go
+     * @param threads is how many threads to use
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessBoard board, ChessGame.TeamColor color, int depth, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return perft(board, color, depth, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs perft on the given pool and times it.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go
+     * @param pool is the pool to run the tasks on
+     * @return the node count and the time it took
+     */
+    public static Perft.Result run(ChessBoard board, ChessGame.TeamColor color, int depth, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        long nodes = perft(board, color, depth, pool);
+        return new Perft.Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the leaf positions under each legal root move, with each root move's subtree run as its own task.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go; must be at least 1
+     * @param pool is the pool to run the tasks on
+     * @return a map from each root move (like "e2e4") to its node count, in generation order
+     */
+    public static Map<String, Long> divide(ChessBoard board, ChessGame.TeamColor color, int depth,
+                                           ForkJoinPool pool) {
+        return pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected Map<String, Long> compute() {
+                MoveList moves = new MoveList();
+                LegalMoveGenerator.generateMoves(board, color, moves);
+                List<PerftTask> tasks = forkChildren(board, moves, Perft.opponent(color), depth - 1,
+                        SPLIT_PLIES - 1);
+
+                Map<String, Long> counts = new LinkedHashMap<>();
+                for (int i = 0; i < moves.size(); i++) {
+                    counts.put(Perft.moveName(moves.get(i)), tasks.get(i).join());
+                }
+                return counts;
+            }
+        });
+    }
+
+    /**
+     * Counts nodes for several positions at once, sharing one pool between all of them.
+     * @param boards is the list of starting positions
+     * @param colors is the team to move in each position
+     * @param depth is how many moves (plies) deep to go
+     * @param pool is the pool to run the tasks on
+     * @return the node count for each position, in the same order
+     */
+    public static long[] perftAll(List<ChessBoard> boards, List<ChessGame.TeamColor> colors, int depth,
+                                  ForkJoinPool pool) {
+        return pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected long[] compute() {
+                List<PerftTask> tasks = new ArrayList<>(boards.size());
+                for (int i = 0; i < boards.size(); i++) {
+                    PerftTask task = new PerftTask(boards.get(i), colors.get(i), depth, SPLIT_PLIES);
+                    task.fork();
+                    tasks.add(task);
+                }
+                long[] nodes = new long[tasks.size()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = tasks.get(i).join();
+                }
+                return nodes;
+            }
+        });
+    }
+
+    /**
+     * forkChildren forks one task per move, each starting from its own copy of the board with that move made.
+     */
+    private static List<PerftTask> forkChildren(ChessBoard board, MoveList moves, ChessGame.TeamColor childColor,
+                                                int childDepth, int splitPlies) {
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            ChessBoard child = new ChessBoard();
+            child.copy(board);
+            child.doMove(moves.get(i));
+            PerftTask task = new PerftTask(child, childColor, childDepth, splitPlies);
+            task.fork();
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * PerftTask counts the nodes under one position. Near the root it forks a task per move; deeper than that
+     * (or when the position is close to the leaves) it counts on its own board copy on the current thread.
+     */
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final ChessBoard board;
+        private final ChessGame.TeamColor color;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(ChessBoard board, ChessGame.TeamColor color, int depth, int splitPlies) {
+            this.board = board;
+            this.color = color;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies <= 0 || depth <= 2) {
+                ChessBoard workBoard = new ChessBoard();
+                workBoard.copy(board);
+                return Perft.count(workBoard, color, depth);
+            }
+            MoveList moves = new MoveList();
+            LegalMoveGenerator.generateMoves(board, color, moves);
+            long nodes = 0;
+            for (PerftTask task : forkChildren(board, moves, Perft.opponent(color), depth - 1, splitPlies - 1)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Measures how perft scales with threads: runs it from the starting position with 1, 2, 4, ... threads up
+     * to the maximum and prints nodes/second and the speedup over one thread for each.
+     * Usage: ParallelPerft [depth] [maxThreads] (defaults to 6 and the number of processors)
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        long singleThreadNanos = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Perft.Result result = run(board, ChessGame.TeamColor.WHITE, depth, pool);
+                if (threads == 1) {
+                    singleThreadNanos = result.nanos();
+                }
+                System.out.printf("%3d threads: %,d nodes in %.3f s (%,d nodes/s, %.2fx)%n", threads,
+                        result.nodes(), result.nanos() / 1e9, result.nodesPerSecond(),
+                        (double) singleThreadNanos / result.nanos());
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Doubles the thread count, but always finishes with exactly maxThreads
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+}
@@ -0,0 +1,159 @@
+package chess.perft;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.movecalculator.LegalMoveGenerator;
+import chess.movecalculator.MoveList;
+import chess.movecalculator.PackedMove;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perft (performance test) walks the whole move tree from a position to a fixed depth and counts the leaf
+ * positions. The counts for standard positions are well known, so a wrong count means the move generator is
+ * broken somewhere, and the time it takes is a good measure of generator speed.
+ * See https://www.chessprogramming.org/Perft
+ * <p>
+ * Divide gives the count under each root move separately, which is how you narrow a wrong count down to the
+ * move that causes it.
+ * <p>
+ * Note: this engine doesn't do castling or en passant, so counts only match the published ones at depths
+ * where neither can happen.
+ */
+public final class Perft {
+    private Perft() {
+    }
+
+    /**
+     * The node count and how long it took to get.
+     * @param nodes is the number of leaf positions
+     * @param nanos is how long the count took in nanoseconds
+     */
+    public record Result(long nodes, long nanos) {
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    /**
+     * Counts the leaf positions reachable in exactly depth moves. The given board isn't changed.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        ChessBoard workBoard = new ChessBoard();
+        workBoard.copy(board);
+        return count(workBoard, color, depth);
+    }
+
+    /**
+     * Runs perft and times it.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go
+     * @return the node count and the time it took
+     */
+    public static Result run(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(board, color, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the leaf positions under each legal root move separately.
+     * @param board is the starting position
+     * @param color is the team to move first
+     * @param depth is how many moves (plies) deep to go; must be at least 1
+     * @return a map from each root move (like "e2e4" or "a7a8q") to its node count, in generation order
+     */
+    public static Map<String, Long> divide(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        ChessBoard workBoard = new ChessBoard();
+        workBoard.copy(board);
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generateMoves(workBoard, color, moves);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            workBoard.doMove(move);
+            counts.put(moveName(move), count(workBoard, opponent(color), depth - 1));
+            workBoard.undoMove(move);
+        }
+        return counts;
+    }
+
+    /**
+     * count is the recursive part of perft. At depth 1 the number of legal moves is the number of leaves,
+     * so the last ply is counted without making any moves (bulk counting).
+     */
+    static long count(ChessBoard board, ChessGame.TeamColor color, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = new MoveList();
+        LegalMoveGenerator.generateMoves(board, color, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        ChessGame.TeamColor nextColor = opponent(color);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.doMove(move);
+            nodes += count(board, nextColor, depth - 1);
+            board.undoMove(move);
+        }
+        return nodes;
+    }
+
+    /**
+     * Writes a packed move in long algebraic notation, with the promotion piece's letter on the end.
+     * @param move is a packed move
+     * @return the move as text, like "e2e4" or "a7a8q"
+     */
+    public static String moveName(int move) {
+        String name = ChessPosition.of(PackedMove.start(move)).getCoordinates()
+                + ChessPosition.of(PackedMove.end(move)).getCoordinates();
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion == null) {
+            return name;
+        }
+        return name + switch (promotion) {
+            case QUEEN -> "q";
+            case ROOK -> "r";
+            case BISHOP -> "b";
+            case KNIGHT -> "n";
+            default -> "?";
+        };
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    /**
+     * Runs divide from the starting position and prints each root move's count, the total, and nodes/second.
+     * Usage: Perft [depth] (defaults to 5)
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        long start = System.nanoTime();
+        Map<String, Long> counts = divide(board, ChessGame.TeamColor.WHITE, depth);
+        Result result = new Result(counts.values().stream().mapToLong(Long::longValue).sum(),
+                System.nanoTime() - start);
+
+        counts.forEach((move, nodes) -> System.out.println(move + ": " + nodes));
+        System.out.println();
+        System.out.println("Nodes: " + result.nodes());
+        System.out.printf("Time: %.3f s (%,d nodes/s)%n", result.nanos() / 1e9, result.nodesPerSecond());
+    }
+}
@@ -1,6 +1,6 @@
 package exception;
 
-import com.google.gson.Gson;
+import serialization.Serializer;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -19,12 +19,12 @@ public class ResponseException extends Exception {
     }
 
     public String toJson() {
-        return new Gson().toJson(Map.of("message", getMessage(), "status", statusCode));
+        return Serializer.GSON.toJson(Map.of("message", getMessage(), "status", statusCode));
     }
 
     public static ResponseException fromJson(InputStream inputStream) {
         try {
-            var map = new Gson().fromJson(new InputStreamReader(inputStream), HashMap.class);
+            var map = Serializer.GSON.fromJson(new InputStreamReader(inputStream), HashMap.class);
 
             int code = 500;
             if (map != null && map.get("status") != null) {
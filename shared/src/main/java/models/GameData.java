@@ -1,7 +1,7 @@
 package models;
 
 import chess.ChessGame;
-import com.google.gson.Gson;
+import serialization.Serializer;
 
 public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game, GameStatus status) {
 
@@ -20,6 +20,6 @@ public record GameData(int gameID, String whiteUsername, String blackUsername, S
     }
 
     public String toString() {
-        return new Gson().toJson(this);
+        return Serializer.GSON.toJson(this);
     }
 }
\ No newline at end of file
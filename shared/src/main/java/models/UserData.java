@@ -1,9 +1,9 @@
 package models;
 
-import com.google.gson.Gson;
+import serialization.Serializer;
 
 public record UserData(String username, String password, String email) {
     public String toString() {
-        return new Gson().toJson(this);
+        return Serializer.GSON.toJson(this);
     }
 }
\ No newline at end of file
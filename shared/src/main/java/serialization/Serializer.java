@@ -0,0 +1,16 @@
+package serialization;
+
+import com.google.gson.Gson;
+
+/**
+ * Serializer holds the one Gson instance the client, server and shared code all use.
+ * Gson is thread-safe and caches the adapter it builds for each type, so sharing one instance skips rebuilding
+ * those for every request. ChessGame, ChessBoard and ChessMove carry their compact TypeAdapters with
+ * @JsonAdapter, so even a Gson made somewhere else (like the test harness) writes them the same way.
+ */
+public final class Serializer {
+    public static final Gson GSON = new Gson();
+
+    private Serializer() {
+    }
+}
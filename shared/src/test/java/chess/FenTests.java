@@ -0,0 +1,133 @@
+package chess;
+
+import chess.movecalculator.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class FenTests {
+
+    @Test
+    public void startingPosition() {
+        ChessGame game = ChessGame.fromFen(Fen.STARTING_POSITION);
+
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING, game.getBoard().getCastlingRights());
+        Assertions.assertEquals(Fen.STARTING_POSITION, new ChessGame().toFen());
+    }
+
+    @Test
+    public void roundTrip() {
+        String[] positions = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2",
+                "4k3/8/8/8/8/8/8/4K3 b - - 49 120"
+        };
+        for (String fen : positions) {
+            Assertions.assertEquals(fen, ChessGame.fromFen(fen).toFen());
+        }
+    }
+
+    @Test
+    public void matchesBoardDiagram() {
+        ChessGame game = ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - -");
+        ChessBoard expected = TestUtilities.loadBoard("""
+                | | | | | | | | |
+                | | |p| | | | | |
+                | | | |p| | | | |
+                |K|P| | | | | |r|
+                | |R| | | |p| |k|
+                | | | | | | | | |
+                | | | | |P| |P| |
+                | | | | | | | | |
+                """);
+
+        Assertions.assertEquals(expected, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+    }
+
+    @Test
+    public void movesUpdateFenState() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", game.toFen());
+    }
+
+    @Test
+    public void rejectsBadFen() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra"
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+
+    @Test
+    public void zobristKeyCoversCastlingAndEnPassant() {
+        String placement = "r3k2r/8/8/8/4Pp2/8/8/R3K2R b ";
+        long[] keys = {
+                ChessGame.fromFen(placement + "KQkq e3 0 1").getZobristKey(),
+                ChessGame.fromFen(placement + "KQkq - 0 1").getZobristKey(),
+                ChessGame.fromFen(placement + "KQk e3 0 1").getZobristKey(),
+                ChessGame.fromFen(placement + "- e3 0 1").getZobristKey()
+        };
+        for (int i = 0; i < keys.length; i++) {
+            for (int j = i + 1; j < keys.length; j++) {
+                Assertions.assertNotEquals(keys[i], keys[j], i + " vs " + j);
+            }
+        }
+
+        ChessBoard board = ChessGame.fromFen(placement + "KQkq e3 0 1").getBoard();
+        ChessBoard noCastling = ChessGame.fromFen(placement + "- e3 0 1").getBoard();
+        Assertions.assertNotEquals(noCastling, board);
+        noCastling.setCastlingRights(ChessBoard.ALL_CASTLING);
+        Assertions.assertEquals(board, noCastling);
+        Assertions.assertEquals(board.getZobristKey(), noCastling.getZobristKey());
+    }
+
+    @Test
+    public void doAndUndoRestoreZobristKey() {
+        ChessBoard board = ChessGame.fromFen("r3k2r/8/8/8/8/8/4P3/R3K2R w KQkq - 0 1").getBoard();
+        long key = board.getZobristKey();
+        // A double push (sets en passant), a king move and a rook capture (both lose castling rights)
+        int[] moves = {PackedMove.encode(12, 28, null, 0), PackedMove.encode(4, 5, null, 0),
+                PackedMove.encode(0, 56, null, 0)};
+        for (int move : moves) {
+            board.doMove(move);
+            Assertions.assertEquals(Fen.parseBoard(Fen.writeBoard(board)).getZobristKey(), board.getZobristKey());
+            board.undoMove(move);
+            Assertions.assertEquals(key, board.getZobristKey());
+        }
+        Assertions.assertEquals(ChessGame.fromFen("r3k2r/8/8/8/8/8/4P3/R3K2R w KQkq - 0 1").getBoard(), board);
+    }
+
+    @Test
+    public void playedMovesCantBeUndone() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        // With the legal moves cached, makeMove takes the other path
+        game.getPositionStatus();
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+
+        int lastMove = PackedMove.encode(52, 36, null, 0);
+        Assertions.assertThrows(IllegalStateException.class, () -> game.getBoard().undoMove(lastMove));
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", game.toFen());
+    }
+}
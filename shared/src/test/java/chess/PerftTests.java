@@ -0,0 +1,137 @@
+package chess;
+
+import chess.perft.ParallelPerft;
+import chess.perft.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Perft node counts for standard test positions (https://www.chessprogramming.org/Perft_Results).
+ * The engine has no castling or en passant, so counts deeper than where those first show up are the
+ * published count minus those moves' subtrees; those were checked against the original ray-walking move
+ * calculators, which follow the same rules.
+ */
+public class PerftTests {
+
+    private static final ChessBoard POSITION_3 = TestUtilities.loadBoard("""
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """);
+
+    private static final ChessBoard POSITION_6 = TestUtilities.loadBoard("""
+            |r| | | | |r|k| |
+            | |p|p| |q|p|p|p|
+            |p| |n|p| |n| | |
+            | | |b| |p| |B| |
+            | | |B| |P| |b| |
+            |P| |N|P| |N| | |
+            | |P|P| |Q|P|P|P|
+            |R| | | | |R|K| |
+            """);
+
+    @Test
+    public void startingPosition() {
+        ChessBoard board = TestUtilities.defaultBoard();
+        long[] expected = {1, 20, 400, 8902, 197281};
+        for (int depth = 0; depth < expected.length; depth++) {
+            assertNodes(expected[depth], board, ChessGame.TeamColor.WHITE, depth);
+        }
+    }
+
+    @Test
+    public void startingPositionDepth5() {
+        // 4,865,609 published, minus the 258 en passant captures
+        assertNodes(4865351, TestUtilities.defaultBoard(), ChessGame.TeamColor.WHITE, 5);
+    }
+
+    @Test
+    public void position3() {
+        // Pins along the fifth row and pawn pushes; 2812 published at depth 3 includes 2 en passant captures
+        long[] expected = {14, 191, 2810, 43087};
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertNodes(expected[depth - 1], POSITION_3, ChessGame.TeamColor.WHITE, depth);
+        }
+    }
+
+    @Test
+    public void position6() {
+        long[] expected = {46, 2079, 89890};
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertNodes(expected[depth - 1], POSITION_6, ChessGame.TeamColor.WHITE, depth);
+        }
+    }
+
+    @Test
+    public void promotionsAndChecks() {
+        // Position 5 without its castling move: a pawn on d7 that can capture-promote, and a knight on f2
+        ChessBoard board = TestUtilities.loadBoard("""
+                |r|n|b|q| |k| |r|
+                |p|p| |P|b|p|p|p|
+                | | |p| | | | | |
+                | | | | | | | | |
+                | | |B| | | | | |
+                | | | | | | | | |
+                |P|P|P| |N|n|P|P|
+                |R|N|B|Q|K| | |R|
+                """);
+        assertNodes(43, board, ChessGame.TeamColor.WHITE, 1);
+        assertNodes(1452, board, ChessGame.TeamColor.WHITE, 2);
+        assertNodes(59922, board, ChessGame.TeamColor.WHITE, 3);
+    }
+
+    @Test
+    public void divideAddsUpToPerft() {
+        ChessBoard board = TestUtilities.defaultBoard();
+        Map<String, Long> divide = Perft.divide(board, ChessGame.TeamColor.WHITE, 3);
+
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(600L, divide.get("e2e4"));
+        Assertions.assertEquals(8902L, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assertions.assertEquals(197281, ParallelPerft.perft(TestUtilities.defaultBoard(),
+                    ChessGame.TeamColor.WHITE, 4, pool));
+            Assertions.assertEquals(Perft.divide(POSITION_6, ChessGame.TeamColor.WHITE, 3),
+                    ParallelPerft.divide(POSITION_6, ChessGame.TeamColor.WHITE, 3, pool));
+
+            long[] nodes = ParallelPerft.perftAll(List.of(POSITION_3, POSITION_6),
+                    List.of(ChessGame.TeamColor.WHITE, ChessGame.TeamColor.WHITE), 3, pool);
+            Assertions.assertArrayEquals(new long[]{2810, 89890}, nodes);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void perftLeavesBoardUnchanged() {
+        ChessBoard board = TestUtilities.defaultBoard();
+        long key = board.getZobristKey();
+        Perft.perft(board, ChessGame.TeamColor.WHITE, 3);
+
+        Assertions.assertEquals(TestUtilities.defaultBoard(), board);
+        Assertions.assertEquals(key, board.getZobristKey());
+    }
+
+    private static void assertNodes(long expected, ChessBoard board, ChessGame.TeamColor color, int depth) {
+        Perft.Result result = Perft.run(board, color, depth);
+        System.out.printf("perft(%d) = %d in %.3f ms (%,d nodes/s)%n", depth, result.nodes(),
+                result.nanos() / 1e6, result.nodesPerSecond());
+        Assertions.assertEquals(expected, result.nodes(), "perft(" + depth + ")");
+    }
+}
@@ -0,0 +1,124 @@
+package chess;
+
+import models.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import serialization.Serializer;
+
+import java.util.Arrays;
+
+public class SerializationTests {
+
+    @Test
+    public void gameIsWrittenAsFen() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        String json = Serializer.GSON.toJson(game);
+
+        Assertions.assertEquals("\"" + game.toFen() + "\"", json);
+        ChessGame read = Serializer.GSON.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game, read);
+        Assertions.assertEquals(game.toFen(), read.toFen());
+    }
+
+    @Test
+    public void gameDataRoundTrip() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq - 3 12");
+        GameData gameData = new GameData(7, "white", "black", "game", game, GameData.GameStatus.LIVE);
+
+        GameData read = Serializer.GSON.fromJson(Serializer.GSON.toJson(gameData), GameData.class);
+
+        Assertions.assertEquals(gameData, read);
+        Assertions.assertEquals(game.toFen(), read.game().toFen());
+    }
+
+    @Test
+    public void readsOldGameJson() {
+        ChessGame expected = new ChessGame();
+        StringBuilder bitboards = new StringBuilder();
+        for (long bitboard : expected.getBoard().getBitboards()) {
+            bitboards.append(bitboards.isEmpty() ? "" : ",").append(bitboard);
+        }
+        String json = "{\"gameBoard\":{\"bitboards\":[" + bitboards + "]},\"currentTeamTurn\":\"BLACK\"}";
+        expected.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals(expected, Serializer.GSON.fromJson(json, ChessGame.class));
+    }
+
+    @Test
+    public void binaryRoundTrip() throws InvalidMoveException {
+        String[] positions = {
+                Fen.STARTING_POSITION,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 2",
+                "4k3/8/8/8/8/8/8/4K3 b - - 49 120",
+                "8/8/8/8/8/8/8/8 w - - 0 1"
+        };
+        for (String fen : positions) {
+            ChessGame game = ChessGame.fromFen(fen);
+            ChessGame read = ChessGame.fromBytes(game.toBytes());
+            Assertions.assertEquals(game, read);
+            Assertions.assertEquals(fen, read.toFen());
+        }
+
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(31, game.toBytes().length);
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(game.toFen(), ChessGame.fromBytes(game.toBytes()).toFen());
+    }
+
+    @Test
+    public void invalidBinaryThrows() {
+        byte[] bytes = new ChessGame().toBytes();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromBytes(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ChessGame.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+        bytes[0] = '{';
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromBytes(bytes));
+    }
+
+    @Test
+    public void moveIsWrittenAsCoordinates() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2),
+                ChessPiece.PieceType.KNIGHT);
+
+        Assertions.assertEquals("\"e2e4\"", Serializer.GSON.toJson(move));
+        Assertions.assertEquals("\"a7b8n\"", Serializer.GSON.toJson(promotion));
+        Assertions.assertEquals(move, Serializer.GSON.fromJson("\"e2e4\"", ChessMove.class));
+        Assertions.assertEquals(promotion, Serializer.GSON.fromJson("\"a7b8n\"", ChessMove.class));
+    }
+
+    @Test
+    public void readsOldMoveJson() {
+        String json = "{\"startPosition\":{\"row\":7,\"col\":1},\"endPosition\":{\"row\":8,\"col\":1}," +
+                "\"promotionPiece\":\"QUEEN\"}";
+
+        ChessMove expected = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1),
+                ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals(expected, Serializer.GSON.fromJson(json, ChessMove.class));
+    }
+
+    @Test
+    public void offBoardMoveStillRoundTrips() {
+        ChessMove move = new ChessMove(new ChessPosition(0, 5), new ChessPosition(9, 5), null);
+
+        Assertions.assertEquals(move, Serializer.GSON.fromJson(Serializer.GSON.toJson(move), ChessMove.class));
+    }
+
+    @Test
+    public void everyPromotionPieceRoundTrips() {
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            ChessMove cached = ChessMove.of(52, 60, type);
+            Assertions.assertEquals(type, cached.getPromotionPiece());
+            Assertions.assertEquals(new ChessMove(52, 60, type), cached);
+            Assertions.assertEquals(cached, Serializer.GSON.fromJson(Serializer.GSON.toJson(cached), ChessMove.class));
+        }
+
+        ChessMove illegal = new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3),
+                ChessPiece.PieceType.KING);
+        Assertions.assertEquals(illegal, Serializer.GSON.fromJson("\"b1c3k\"", ChessMove.class));
+    }
+}